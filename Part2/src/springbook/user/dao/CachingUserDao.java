@@ -0,0 +1,190 @@
+package springbook.user.dao;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import springbook.user.domain.User;
+
+public class CachingUserDao implements UserDao {
+	public static final int DEFAULT_MAX_SIZE = 10000;
+	public static final long DEFAULT_TIME_TO_LIVE_MILLIS = 60 * 1000;
+
+	private UserDao userDao;
+	private int maxSize = DEFAULT_MAX_SIZE;
+	private long timeToLiveMillis = DEFAULT_TIME_TO_LIVE_MILLIS;
+
+	private final Map<String, CachedUser> cache = new LinkedHashMap<String, CachedUser>(16, 0.75f, true) {
+		protected boolean removeEldestEntry(Map.Entry<String, CachedUser> eldest) {
+			if (size() <= maxSize) return false;
+			evictions.incrementAndGet();
+			return true;
+		}
+	};
+	private long writeVersion;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	public void setUserDao(UserDao userDao) {
+		this.userDao = userDao;
+	}
+
+	public void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	public void setTimeToLiveMillis(long timeToLiveMillis) {
+		this.timeToLiveMillis = timeToLiveMillis;
+	}
+
+	public User get(String id) {
+		//  Ʈǿ   Ŀ  ĳÿ ø ʴ´
+		if (TransactionSynchronizationManager.hasResource(this)) {
+			return userDao.get(id);
+		}
+
+		long version;
+		synchronized (cache) {
+			CachedUser cached = cache.get(id);
+			if (cached != null) {
+				if (cached.expiresAt > System.currentTimeMillis()) {
+					hits.incrementAndGet();
+					return copy(cached.user);
+				}
+				cache.remove(id);
+				evictions.incrementAndGet();
+			}
+			version = writeVersion;
+		}
+
+		misses.incrementAndGet();
+		User user = userDao.get(id);
+		synchronized (cache) {
+			if (version == writeVersion) {
+				cache.put(id, new CachedUser(copy(user), System.currentTimeMillis() + timeToLiveMillis));
+			}
+		}
+		return user;
+	}
+
+	public void add(User user) {
+		userDao.add(user);
+		invalidate(Collections.singleton(user.getId()));
+	}
+
+	public void update(User user) {
+		userDao.update(user);
+		invalidate(Collections.singleton(user.getId()));
+	}
+
+	public void updateAll(Collection<User> users) {
+		userDao.updateAll(users);
+		Set<String> ids = new HashSet<String>();
+		for (User user : users) ids.add(user.getId());
+		invalidate(ids);
+	}
+
+	public void deleteAll() {
+		userDao.deleteAll();
+		invalidate(null);
+	}
+
+	// ids null̸ ü 
+	private void invalidate(Collection<String> ids) {
+		synchronized (cache) {
+			if (ids == null) cache.clear();
+			else for (String id : ids) cache.remove(id);
+			writeVersion++;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			writtenIds().add(ids);
+		}
+	}
+
+	private WrittenIds writtenIds() {
+		WrittenIds writtenIds = (WrittenIds) TransactionSynchronizationManager.getResource(this);
+		if (writtenIds == null) {
+			writtenIds = new WrittenIds();
+			TransactionSynchronizationManager.bindResource(this, writtenIds);
+			TransactionSynchronizationManager.registerSynchronization(writtenIds);
+		}
+		return writtenIds;
+	}
+
+	public List<User> getAll() { return userDao.getAll(); }
+	public int getCount() { return userDao.getCount(); }
+	public List<User> getAllAfter(String lastId, int limit) { return userDao.getAllAfter(lastId, limit); }
+	public List<User> getAllBetween(String lastId, String upToId, int limit) { return userDao.getAllBetween(lastId, upToId, limit); }
+	public String getIdAt(int position) { return userDao.getIdAt(position); }
+
+	public List<User> getUpgradeCandidatesAfter(String lastId, UpgradeCandidateCondition condition, int limit) {
+		return userDao.getUpgradeCandidatesAfter(lastId, condition, limit);
+	}
+
+	public List<User> getUpgradeCandidatesBetween(String lastId, String upToId, UpgradeCandidateCondition condition, int limit) {
+		return userDao.getUpgradeCandidatesBetween(lastId, upToId, condition, limit);
+	}
+
+	public int getSize() {
+		synchronized (cache) {
+			return cache.size();
+		}
+	}
+
+	public long getHitCount() { return hits.get(); }
+	public long getMissCount() { return misses.get(); }
+	public long getEvictionCount() { return evictions.get(); }
+
+	private static User copy(User user) {
+		return new User(user.getId(), user.getName(), user.getPassword(), user.getEmail(),
+				user.getLevel(), user.getLogin(), user.getRecommend());
+	}
+
+	private static class CachedUser {
+		final User user;
+		final long expiresAt;
+
+		CachedUser(User user, long expiresAt) {
+			this.user = user;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	// ѹǾų Ŀ  ٸ 尡   ٽ ÷  Ƿ Ʈ     
+	private class WrittenIds extends TransactionSynchronizationAdapter {
+		private Set<String> ids = new HashSet<String>();
+
+		void add(Collection<String> ids) {
+			if (this.ids == null) return;
+			if (ids == null) this.ids = null;
+			else this.ids.addAll(ids);
+		}
+
+		public void suspend() {
+			TransactionSynchronizationManager.unbindResourceIfPossible(CachingUserDao.this);
+		}
+
+		public void resume() {
+			TransactionSynchronizationManager.bindResource(CachingUserDao.this, this);
+		}
+
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(CachingUserDao.this);
+			synchronized (cache) {
+				if (ids == null) cache.clear();
+				else for (String id : ids) cache.remove(id);
+				writeVersion++;
+			}
+		}
+	}
+}
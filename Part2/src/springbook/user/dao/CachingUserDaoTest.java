@@ -0,0 +1,120 @@
+package springbook.user.dao;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import springbook.user.domain.Level;
+import springbook.user.domain.User;
+
+public class CachingUserDaoTest {
+	UserDao mockUserDao;
+	CachingUserDao cachingUserDao;
+	User user1;
+	User user2;
+	User user3;
+	
+	@Before
+	public void setUp() {
+		user1 = new User("gyumee", "ڼö", "springno1", "user1@ksug.org", Level.BASIC, 1, 0);
+		user2 = new User("leegw700", "̱", "springno2", "user2@ksug.org", Level.SILVER, 55, 10);
+		user3 = new User("bumjin", "ڹ", "springno3", "user3@ksug.org", Level.GOLD, 100, 40);
+		
+		mockUserDao = mock(UserDao.class);
+		when(mockUserDao.get(user1.getId())).thenReturn(user1);
+		when(mockUserDao.get(user2.getId())).thenReturn(user2);
+		when(mockUserDao.get(user3.getId())).thenReturn(user3);
+		
+		cachingUserDao = new CachingUserDao();
+		cachingUserDao.setUserDao(mockUserDao);
+	}
+	
+	@After
+	public void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+	
+	@Test
+	public void readThrough() {
+		User first = cachingUserDao.get(user1.getId());
+		User second = cachingUserDao.get(user1.getId());
+		
+		verify(mockUserDao, times(1)).get(user1.getId());
+		assertThat(second.getName(), is(user1.getName()));
+		assertThat(second, is(not(sameInstance(first))));
+		assertThat(cachingUserDao.getHitCount(), is(1L));
+		assertThat(cachingUserDao.getMissCount(), is(1L));
+	}
+	
+	@Test
+	public void invalidateOnWrite() {
+		cachingUserDao.get(user1.getId());
+		cachingUserDao.update(user1);
+		cachingUserDao.get(user1.getId());
+		
+		cachingUserDao.updateAll(Arrays.asList(user1));
+		cachingUserDao.get(user1.getId());
+		
+		cachingUserDao.deleteAll();
+		cachingUserDao.get(user1.getId());
+
+		verify(mockUserDao, times(4)).get(user1.getId());
+	}
+	
+	@Test
+	public void evictBySize() {
+		cachingUserDao.setMaxSize(2);
+		cachingUserDao.get(user1.getId());
+		cachingUserDao.get(user2.getId());
+		cachingUserDao.get(user3.getId());
+		
+		assertThat(cachingUserDao.getSize(), is(2));
+		assertThat(cachingUserDao.getEvictionCount(), is(1L));
+		
+		cachingUserDao.get(user1.getId());
+		verify(mockUserDao, times(2)).get(user1.getId());
+	}
+	
+	@Test
+	public void evictByTimeToLive() {
+		cachingUserDao.setTimeToLiveMillis(0);
+		cachingUserDao.get(user1.getId());
+		cachingUserDao.get(user1.getId());
+		
+		verify(mockUserDao, times(2)).get(user1.getId());
+		assertThat(cachingUserDao.getEvictionCount(), is(1L));
+	}
+	
+	@Test
+	public void bypassAfterWriteInTransaction() {
+		TransactionSynchronizationManager.initSynchronization();
+		cachingUserDao.update(user1);
+		cachingUserDao.get(user1.getId());
+		cachingUserDao.get(user1.getId());
+		assertThat(cachingUserDao.getSize(), is(0));
+		
+		for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+		}
+		TransactionSynchronizationManager.clearSynchronization();
+		
+		cachingUserDao.get(user1.getId());
+		cachingUserDao.get(user1.getId());
+		verify(mockUserDao, times(3)).get(user1.getId());
+	}
+}
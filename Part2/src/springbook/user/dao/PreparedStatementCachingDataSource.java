@@ -0,0 +1,185 @@
+package springbook.user.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * ĿؼǸ prepareStatement(sql)  PreparedStatement  ʰ SQL ߴٰ ٽ .
+ * Ű SQL ̹Ƿ updateSql() SQL ٲ ڿ   غϰ,   LRU з.
+ * ĳô getConnection()  Ŀؼǿ پ ְ  Ŀؼ  Բ .
+ *  Ŀؼ Ǯ  θ(JdbcTemplate ->  DataSource -> Ǯ) Ʈ ȿ ȿ ִ.
+ * Ʈ  ȣ⸶ Ϸ Ǯ Ʒ(Ǯ ->  DataSource -> ̹ DataSource) ξ
+ *  ĿؼǸ ĳð ϳ  Ǯ Ŀؼ   ǰ Ѵ.
+ */
+public class PreparedStatementCachingDataSource extends DelegatingDataSource {
+	public static final int DEFAULT_STATEMENTS_PER_CONNECTION = 50;
+
+	private int statementsPerConnection = DEFAULT_STATEMENTS_PER_CONNECTION;
+
+	private final AtomicLong prepared = new AtomicLong();
+	private final AtomicLong reused = new AtomicLong();
+	private final AtomicLong evicted = new AtomicLong();
+
+	public PreparedStatementCachingDataSource() {
+	}
+
+	public PreparedStatementCachingDataSource(DataSource targetDataSource) {
+		super(targetDataSource);
+	}
+
+	public void setStatementsPerConnection(int statementsPerConnection) {
+		this.statementsPerConnection = statementsPerConnection;
+	}
+
+	public Connection getConnection() throws SQLException {
+		return wrap(getTargetDataSource().getConnection());
+	}
+
+	public Connection getConnection(String username, String password) throws SQLException {
+		return wrap(getTargetDataSource().getConnection(username, password));
+	}
+
+	private Connection wrap(Connection connection) {
+		return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { Connection.class }, new CachingConnection(connection));
+	}
+
+	public long getPrepareCount() { return prepared.get(); }
+
+	/** ĳ п  prepareStatement() ȣ  */
+	public long getReuseCount() { return reused.get(); }
+
+	public long getEvictionCount() { return evicted.get(); }
+
+	private class CachingConnection implements InvocationHandler {
+		private final Connection target;
+		private final Map<String, CachedStatement> idle = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+			protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+				if (size() <= statementsPerConnection) return false;
+				evicted.incrementAndGet();
+				closeQuietly(eldest.getValue().target);
+				return true;
+			}
+		};
+		private boolean closed;
+
+		CachingConnection(Connection target) {
+			this.target = target;
+		}
+
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.equals("prepareStatement") && args.length == 1) {
+				return prepareStatement((String) args[0]);
+			}
+			if (name.equals("close")) {
+				close();
+				return null;
+			}
+			if (name.equals("equals")) return proxy == args[0];
+			if (name.equals("hashCode")) return System.identityHashCode(proxy);
+			if (name.equals("unwrap") && ((Class<?>) args[0]).isInstance(target)) return target;
+			return invokeTarget(target, method, args);
+		}
+
+		// Ͻõ  Բ  ٽ  ʴ´
+		private synchronized PreparedStatement prepareStatement(String sql) throws SQLException {
+			CachedStatement statement = idle.remove(sql);
+			if (statement != null) {
+				reused.incrementAndGet();
+				statement.closed = false;
+			}
+			else {
+				statement = new CachedStatement(this, sql, target.prepareStatement(sql));
+				prepared.incrementAndGet();
+			}
+			return statement.proxy;
+		}
+
+		//  SQL  ̹   ϳ 
+		synchronized void release(CachedStatement statement) {
+			if (closed || idle.containsKey(statement.sql)) {
+				closeQuietly(statement.target);
+				return;
+			}
+			try {
+				statement.target.clearParameters();
+				statement.target.clearBatch();
+			} catch (SQLException e) {
+				closeQuietly(statement.target);
+				return;
+			}
+			idle.put(statement.sql, statement);
+		}
+
+		private synchronized void close() throws SQLException {
+			if (closed) return;
+			closed = true;
+			List<CachedStatement> statements = new ArrayList<CachedStatement>(idle.values());
+			idle.clear();
+			for (CachedStatement statement : statements) closeQuietly(statement.target);
+			target.close();
+		}
+	}
+
+	private static class CachedStatement implements InvocationHandler {
+		private final CachingConnection connection;
+		private final String sql;
+		private final PreparedStatement target;
+		private final PreparedStatement proxy;
+		private boolean closed;
+
+		CachedStatement(CachingConnection connection, String sql, PreparedStatement target) {
+			this.connection = connection;
+			this.sql = sql;
+			this.target = target;
+			this.proxy = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+					new Class<?>[] { PreparedStatement.class }, this);
+		}
+
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.equals("close")) {
+				if (!closed) {
+					closed = true;
+					connection.release(this);
+				}
+				return null;
+			}
+			if (name.equals("isClosed")) return closed;
+			if (name.equals("equals")) return proxy == args[0];
+			if (name.equals("hashCode")) return System.identityHashCode(proxy);
+			if (closed) throw new SQLException("̹  PreparedStatementԴϴ");
+			return invokeTarget(target, method, args);
+		}
+	}
+
+	private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+
+	private static void closeQuietly(PreparedStatement statement) {
+		try {
+			statement.close();
+		} catch (SQLException e) {
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package springbook.user.dao;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType.HSQL;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class PreparedStatementCachingDataSourceTest {
+	EmbeddedDatabase db;
+	PreparedStatementCachingDataSource dataSource;
+	JdbcTemplate jdbcTemplate;
+	TransactionTemplate transactionTemplate;
+	
+	@Before
+	public void setUp() {
+		db = new EmbeddedDatabaseBuilder()
+			.setType(HSQL)
+			.setName("statementCache")
+			.addScript("classpath:springbook/user/sqlservice/updatable/sqlRegistrySchema.sql")
+			.build();
+		dataSource = new PreparedStatementCachingDataSource(db);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		
+		jdbcTemplate.update("insert into sqlmap(key_, sql_) values(?,?)", "KEY1", "SQL1");
+		jdbcTemplate.update("insert into sqlmap(key_, sql_) values(?,?)", "KEY2", "SQL2");
+	}
+	
+	@After
+	public void tearDown() {
+		db.shutdown();
+	}
+	
+	@Test
+	public void reuseInConnection() {
+		transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				long prepared = dataSource.getPrepareCount();
+				assertThat(find("KEY1"), is("SQL1"));
+				assertThat(find("KEY2"), is("SQL2"));
+				assertThat(find("KEY1"), is("SQL1"));
+				
+				assertThat(dataSource.getPrepareCount(), is(prepared + 1));
+				assertThat(dataSource.getReuseCount(), is(2L));
+			}
+		});
+		
+		// Ŀؼ  ϴ 嵵 
+		find("KEY1");
+		assertThat(dataSource.getReuseCount(), is(2L));
+	}
+	
+	@Test
+	public void reuseUnderPool() throws Exception {
+		// Ŀؼ ϳ¥ Ǯ: close()ص Ʒ Ŀؼ  ʴ´
+		SingleConnectionDataSource pool = new SingleConnectionDataSource(dataSource.getConnection(), true);
+		jdbcTemplate = new JdbcTemplate(pool);
+		
+		long prepared = dataSource.getPrepareCount();
+		assertThat(find("KEY1"), is("SQL1"));
+		assertThat(find("KEY1"), is("SQL1"));
+		assertThat(find("KEY2"), is("SQL2"));
+		
+		assertThat(dataSource.getPrepareCount(), is(prepared + 1));
+		assertThat(dataSource.getReuseCount(), is(2L));
+		pool.destroy();
+	}
+	
+	@Test
+	public void evictLeastRecentlyUsed() {
+		dataSource.setStatementsPerConnection(1);
+		transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				find("KEY1");
+				jdbcTemplate.queryForInt("select count(*) from sqlmap where key_ <> ?", "KEY1");
+				find("KEY2");
+				
+				assertThat(dataSource.getReuseCount(), is(0L));
+				assertThat(dataSource.getEvictionCount(), is(2L));
+			}
+		});
+	}
+	
+	private String find(String key) {
+		return jdbcTemplate.queryForObject("select sql_ from sqlmap where key_ = ?", String.class, key);
+	}
+}
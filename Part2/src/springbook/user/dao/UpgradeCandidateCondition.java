@@ -0,0 +1,17 @@
+package springbook.user.dao;
+
+public class UpgradeCandidateCondition {
+	private final int levelBelow;
+	private final int minLogin;
+	private final int minRecommend;
+
+	public UpgradeCandidateCondition(int levelBelow, int minLogin, int minRecommend) {
+		this.levelBelow = levelBelow;
+		this.minLogin = minLogin;
+		this.minRecommend = minRecommend;
+	}
+
+	public int getLevelBelow() { return levelBelow; }
+	public int getMinLogin() { return minLogin; }
+	public int getMinRecommend() { return minRecommend; }
+}
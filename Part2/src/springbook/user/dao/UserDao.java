@@ -1,5 +1,6 @@
 package springbook.user.dao;
 
+import java.util.Collection;
 import java.util.List;
 
 import springbook.user.domain.User;
@@ -12,10 +13,22 @@ public interface UserDao {
 
 	List<User> getAll();
 
+	List<User> getAllAfter(String lastId, int limit);
+
+	List<User> getAllBetween(String lastId, String upToId, int limit);
+
+	String getIdAt(int position);
+
+	List<User> getUpgradeCandidatesAfter(String lastId, UpgradeCandidateCondition condition, int limit);
+
+	List<User> getUpgradeCandidatesBetween(String lastId, String upToId, UpgradeCandidateCondition condition, int limit);
+
 	void deleteAll();
 
 	int getCount();
 
 	void update(User user);
 
+	void updateAll(Collection<User> users);
+
 }
\ No newline at end of file
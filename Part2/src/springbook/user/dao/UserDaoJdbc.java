@@ -1,15 +1,16 @@
 package springbook.user.dao;
 
-import java.sql.ResultSet;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import javax.sql.DataSource;
 
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
 
-import springbook.user.domain.Level;
 import springbook.user.domain.User;
 import springbook.user.sqlservice.SqlService;
 
@@ -26,21 +27,6 @@ public class UserDaoJdbc implements UserDao {
 		this.sqlService = sqlService;
 	}
 
-	private RowMapper<User> userMapper = 
-		new RowMapper<User>() {
-				public User mapRow(ResultSet rs, int rowNum) throws SQLException {
-				User user = new User();
-				user.setId(rs.getString("id"));
-				user.setName(rs.getString("name"));
-				user.setPassword(rs.getString("password"));
-				user.setEmail(rs.getString("email"));
-				user.setLevel(Level.valueOf(rs.getInt("level")));
-				user.setLogin(rs.getInt("login"));
-				user.setRecommend(rs.getInt("recommend"));
-				return user;
-			}
-		};
-
 	public void add(User user) {
 		this.jdbcTemplate.update(
 				this.sqlService.getSql("userAdd"), 
@@ -50,7 +36,7 @@ public class UserDaoJdbc implements UserDao {
 
 	public User get(String id) {
 		return this.jdbcTemplate.queryForObject(this.sqlService.getSql("userGet"),
-				new Object[] {id}, this.userMapper);
+				new Object[] {id}, new UserMapper());
 	} 
 
 	public void deleteAll() {
@@ -62,7 +48,34 @@ public class UserDaoJdbc implements UserDao {
 	}
 
 	public List<User> getAll() {
-		return this.jdbcTemplate.query(this.sqlService.getSql("userGetAll"), this.userMapper);
+		return this.jdbcTemplate.query(this.sqlService.getSql("userGetAll"), new UserMapper());
+	}
+
+	public List<User> getAllAfter(String lastId, int limit) {
+		return this.jdbcTemplate.query(this.sqlService.getSql("userGetAllAfter"),
+				new Object[] {lastId == null ? "" : lastId, limit}, new UserMapper());
+	}
+
+	public List<User> getAllBetween(String lastId, String upToId, int limit) {
+		return this.jdbcTemplate.query(this.sqlService.getSql("userGetAllBetween"),
+				new Object[] {lastId == null ? "" : lastId, upToId, limit}, new UserMapper());
+	}
+
+	public String getIdAt(int position) {
+		return this.jdbcTemplate.queryForObject(this.sqlService.getSql("userGetIdAt"),
+				new Object[] {position}, String.class);
+	}
+
+	public List<User> getUpgradeCandidatesAfter(String lastId, UpgradeCandidateCondition condition, int limit) {
+		return this.jdbcTemplate.query(this.sqlService.getSql("userGetUpgradeCandidatesAfter"),
+				new Object[] {lastId == null ? "" : lastId, condition.getLevelBelow(), 
+					condition.getMinLogin(), condition.getMinRecommend(), limit}, new UserMapper());
+	}
+
+	public List<User> getUpgradeCandidatesBetween(String lastId, String upToId, UpgradeCandidateCondition condition, int limit) {
+		return this.jdbcTemplate.query(this.sqlService.getSql("userGetUpgradeCandidatesBetween"),
+				new Object[] {lastId == null ? "" : lastId, upToId, condition.getLevelBelow(), 
+					condition.getMinLogin(), condition.getMinRecommend(), limit}, new UserMapper());
 	}
 
 	public void update(User user) {
@@ -73,4 +86,25 @@ public class UserDaoJdbc implements UserDao {
 		user.getId());
 		
 	}
+
+	public void updateAll(Collection<User> users) {
+		final List<User> batch = new ArrayList<User>(users);
+		this.jdbcTemplate.batchUpdate(this.sqlService.getSql("userUpdate"),
+			new BatchPreparedStatementSetter() {
+				public void setValues(PreparedStatement ps, int i) throws SQLException {
+					User user = batch.get(i);
+					ps.setString(1, user.getName());
+					ps.setString(2, user.getPassword());
+					ps.setString(3, user.getEmail());
+					ps.setInt(4, user.getLevel().intValue());
+					ps.setInt(5, user.getLogin());
+					ps.setInt(6, user.getRecommend());
+					ps.setString(7, user.getId());
+				}
+
+				public int getBatchSize() {
+					return batch.size();
+				}
+			});
+	}
 }
@@ -4,6 +4,7 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.List;
 
 import javax.sql.DataSource;
@@ -161,5 +162,25 @@ public class UserDaoTest {
 		User user2same = dao.get(user2.getId());
 		checkSameUser(user2, user2same);
 	}
+	
+	@Test
+	public void updateAll() {
+		dao.deleteAll();
+		
+		dao.add(user1);
+		dao.add(user2);
+		dao.add(user3);
+		
+		user1.setLevel(Level.SILVER);
+		user1.setLogin(50);
+		user3.setName("α");
+		user3.setRecommend(999);
+		
+		dao.updateAll(Arrays.asList(user1, user3));
+		
+		checkSameUser(user1, dao.get(user1.getId()));
+		checkSameUser(user2, dao.get(user2.getId()));
+		checkSameUser(user3, dao.get(user3.getId()));
+	}
 
 }
@@ -0,0 +1,42 @@
+package springbook.user.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import springbook.user.domain.Level;
+import springbook.user.domain.User;
+
+/**
+ * ù ο쿡 ÷ ε   ãƵΰ Ŀ ε д´.
+ * ε · Ƿ     Ѵ.
+ */
+public class UserMapper implements RowMapper<User> {
+	private int id, name, password, email, level, login, recommend;
+	private boolean resolved;
+
+	public User mapRow(ResultSet rs, int rowNum) throws SQLException {
+		if (!resolved) resolveColumns(rs);
+		User user = new User();
+		user.setId(rs.getString(id));
+		user.setName(rs.getString(name));
+		user.setPassword(rs.getString(password));
+		user.setEmail(rs.getString(email));
+		user.setLevel(Level.valueOf(rs.getInt(level)));
+		user.setLogin(rs.getInt(login));
+		user.setRecommend(rs.getInt(recommend));
+		return user;
+	}
+
+	private void resolveColumns(ResultSet rs) throws SQLException {
+		id = rs.findColumn("id");
+		name = rs.findColumn("name");
+		password = rs.findColumn("password");
+		email = rs.findColumn("email");
+		level = rs.findColumn("level");
+		login = rs.findColumn("login");
+		recommend = rs.findColumn("recommend");
+		resolved = true;
+	}
+}
@@ -0,0 +1,48 @@
+package springbook.user.dao;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.junit.Test;
+
+import springbook.user.domain.Level;
+import springbook.user.domain.User;
+
+public class UserMapperTest {
+	@Test
+	public void resolveColumnsOnce() throws SQLException {
+		ResultSet rs = mock(ResultSet.class);
+		String[] columns = { "id", "name", "password", "email", "level", "login", "recommend" };
+		for (int i = 0; i < columns.length; i++) {
+			when(rs.findColumn(columns[i])).thenReturn(i + 1);
+		}
+		when(rs.getString(1)).thenReturn("gyumee", "leegw700");
+		when(rs.getString(2)).thenReturn("ڼö", "̱");
+		when(rs.getString(3)).thenReturn("springno1", "springno2");
+		when(rs.getString(4)).thenReturn("user1@ksug.org", "user2@ksug.org");
+		when(rs.getInt(5)).thenReturn(1, 2);
+		when(rs.getInt(6)).thenReturn(1, 55);
+		when(rs.getInt(7)).thenReturn(0, 10);
+		
+		UserMapper mapper = new UserMapper();
+		User user1 = mapper.mapRow(rs, 0);
+		User user2 = mapper.mapRow(rs, 1);
+		
+		assertThat(user1.getId(), is("gyumee"));
+		assertThat(user1.getLevel(), is(Level.BASIC));
+		assertThat(user2.getName(), is("̱"));
+		assertThat(user2.getLevel(), is(Level.SILVER));
+		assertThat(user2.getLogin(), is(55));
+		assertThat(user2.getRecommend(), is(10));
+		for (String column : columns) {
+			verify(rs, times(1)).findColumn(column);
+		}
+	}
+}
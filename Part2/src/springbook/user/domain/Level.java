@@ -19,13 +19,14 @@ public enum Level {
 		return this.next;
 	}
 	
+	private static final Level[] BY_VALUE = new Level[values().length + 1];
+	static {
+		for (Level level : values()) BY_VALUE[level.value] = level;
+	}
+	
 	public static Level valueOf(int value) {
-		switch(value) {
-		case 1: return BASIC;
-		case 2: return SILVER;
-		case 3: return GOLD;
-		default: throw new AssertionError("Unknown value: " + value);
-		}
+		if (value < 1 || value >= BY_VALUE.length) throw new AssertionError("Unknown value: " + value);
+		return BY_VALUE[value];
 	}
 }
 
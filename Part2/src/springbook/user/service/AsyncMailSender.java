@@ -0,0 +1,191 @@
+package springbook.user.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSender;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class AsyncMailSender implements MailSender {
+	public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+	public static final int DEFAULT_BATCH_SIZE = 50;
+
+	private MailSender mailSender;
+	private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
+	private BlockingQueue<SimpleMailMessage> queue;
+	private Thread worker;
+	private volatile boolean running;
+
+	private final AtomicLong sentCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+	private final AtomicLong droppedCount = new AtomicLong();
+	private final AtomicLong batchCount = new AtomicLong();
+	private final AtomicLong totalSendNanos = new AtomicLong();
+	private volatile long maxSendNanos;
+
+	public void setMailSender(MailSender mailSender) {
+		this.mailSender = mailSender;
+	}
+
+	public void setQueueCapacity(int queueCapacity) {
+		this.queueCapacity = queueCapacity;
+	}
+
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	@PostConstruct
+	public synchronized void start() {
+		if (this.running) return;
+		this.queue = new ArrayBlockingQueue<SimpleMailMessage>(this.queueCapacity);
+		this.running = true;
+		this.worker = new Thread(new Runnable() {
+			public void run() {
+				dispatch();
+			}
+		}, "async-mail-sender");
+		this.worker.setDaemon(true);
+		this.worker.start();
+	}
+
+	@PreDestroy
+	public synchronized void stop() {
+		if (!this.running) return;
+		this.running = false;
+		try {
+			this.worker.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	public void send(SimpleMailMessage mailMessage) throws MailException {
+		send(new SimpleMailMessage[] { mailMessage });
+	}
+
+	public void send(SimpleMailMessage[] mailMessages) throws MailException {
+		if (!this.running) {
+			throw new IllegalStateException("AsyncMailSender ۵ ʾҽϴ");
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			pendingMails().add(mailMessages);
+		}
+		else {
+			enqueue(mailMessages);
+		}
+	}
+
+	private PendingMails pendingMails() {
+		PendingMails pendingMails = (PendingMails) TransactionSynchronizationManager.getResource(this);
+		if (pendingMails == null) {
+			pendingMails = new PendingMails();
+			TransactionSynchronizationManager.bindResource(this, pendingMails);
+			TransactionSynchronizationManager.registerSynchronization(pendingMails);
+		}
+		return pendingMails;
+	}
+
+	// ť      ȣ 带 Ѵ(backpressure)
+	// ٸ ͷƮǸ      droppedCount 
+	private void enqueue(SimpleMailMessage[] mailMessages) {
+		int queued = 0;
+		try {
+			for (SimpleMailMessage mailMessage : mailMessages) {
+				this.queue.put(mailMessage);
+				queued++;
+			}
+		} catch (InterruptedException e) {
+			this.droppedCount.addAndGet(mailMessages.length - queued);
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void dispatch() {
+		List<SimpleMailMessage> batch = new ArrayList<SimpleMailMessage>(this.batchSize);
+		while (this.running || !this.queue.isEmpty()) {
+			try {
+				SimpleMailMessage first = this.queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) continue;
+				batch.add(first);
+				this.queue.drainTo(batch, this.batchSize - 1);
+				sendBatch(batch.toArray(new SimpleMailMessage[batch.size()]));
+				batch.clear();
+			} catch (InterruptedException e) {
+				this.running = false;
+			}
+		}
+	}
+
+	private void sendBatch(SimpleMailMessage[] mailMessages) {
+		long started = System.nanoTime();
+		try {
+			this.mailSender.send(mailMessages);
+			this.sentCount.addAndGet(mailMessages.length);
+		} catch (RuntimeException e) {
+			// MailException  ܷ ϳ Ŀ  ť  send()  ϵȴ
+			this.failedCount.addAndGet(mailMessages.length);
+		}
+		long elapsed = System.nanoTime() - started;
+		this.batchCount.incrementAndGet();
+		this.totalSendNanos.addAndGet(elapsed);
+		if (elapsed > this.maxSendNanos) this.maxSendNanos = elapsed;
+	}
+
+	public int getQueueDepth() {
+		return this.queue == null ? 0 : this.queue.size();
+	}
+
+	public long getSentCount() { return sentCount.get(); }
+	public long getFailedCount() { return failedCount.get(); }
+	public long getDroppedCount() { return droppedCount.get(); }
+	public long getBatchCount() { return batchCount.get(); }
+
+	public double getAverageSendMillis() {
+		long batches = batchCount.get();
+		if (batches == 0) return 0;
+		return totalSendNanos.get() / 1000000.0 / batches;
+	}
+
+	public double getMaxSendMillis() {
+		return maxSendNanos / 1000000.0;
+	}
+
+	private class PendingMails extends TransactionSynchronizationAdapter {
+		private final List<SimpleMailMessage> mailMessages = new ArrayList<SimpleMailMessage>();
+
+		void add(SimpleMailMessage[] mailMessages) {
+			for (SimpleMailMessage mailMessage : mailMessages) {
+				this.mailMessages.add(mailMessage);
+			}
+		}
+
+		public void suspend() {
+			TransactionSynchronizationManager.unbindResourceIfPossible(AsyncMailSender.this);
+		}
+
+		public void resume() {
+			TransactionSynchronizationManager.bindResource(AsyncMailSender.this, this);
+		}
+
+		public void afterCommit() {
+			enqueue(this.mailMessages.toArray(new SimpleMailMessage[this.mailMessages.size()]));
+		}
+
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(AsyncMailSender.this);
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package springbook.user.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSender;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class AsyncMailSenderTest {
+	AsyncMailSender asyncMailSender;
+	BatchRecordingMailSender recordingMailSender;
+
+	@Before
+	public void setUp() {
+		recordingMailSender = new BatchRecordingMailSender();
+		asyncMailSender = new AsyncMailSender();
+		asyncMailSender.setMailSender(recordingMailSender);
+		asyncMailSender.setBatchSize(3);
+		asyncMailSender.start();
+	}
+
+	@After
+	public void tearDown() {
+		asyncMailSender.stop();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	public void sendInBatches() {
+		for (int i = 0; i < 7; i++) asyncMailSender.send(mail("user" + i + "@ksug.org"));
+		asyncMailSender.stop();
+
+		assertThat(recordingMailSender.getRequests().size(), is(7));
+		assertThat(asyncMailSender.getSentCount(), is(7L));
+		assertThat(asyncMailSender.getQueueDepth(), is(0));
+		for (Integer size : recordingMailSender.getBatchSizes()) {
+			assertTrue(size <= 3);
+		}
+	}
+
+	@Test
+	public void sendAfterCommit() {
+		TransactionSynchronizationManager.initSynchronization();
+		asyncMailSender.send(mail("user1@ksug.org"));
+		asyncMailSender.send(mail("user2@ksug.org"));
+		assertThat(asyncMailSender.getQueueDepth(), is(0));
+
+		completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+		asyncMailSender.stop();
+
+		assertThat(recordingMailSender.getRequests().size(), is(2));
+	}
+
+	@Test
+	public void discardOnRollback() {
+		TransactionSynchronizationManager.initSynchronization();
+		asyncMailSender.send(mail("user1@ksug.org"));
+
+		completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+		asyncMailSender.stop();
+
+		assertThat(recordingMailSender.getRequests().size(), is(0));
+		assertThat(TransactionSynchronizationManager.hasResource(asyncMailSender), is(false));
+	}
+
+	@Test(timeout=5000)
+	public void keepSendingAfterUnexpectedException() {
+		asyncMailSender.stop();
+		asyncMailSender = new AsyncMailSender();
+		asyncMailSender.setMailSender(new BatchRecordingMailSender() {
+			public void send(SimpleMailMessage[] mailMessages) throws MailException {
+				if (mailMessages[0].getTo()[0].startsWith("bad")) throw new IllegalArgumentException();
+				super.send(mailMessages);
+			}
+		});
+		asyncMailSender.setBatchSize(1);
+		asyncMailSender.setQueueCapacity(2);
+		asyncMailSender.start();
+
+		asyncMailSender.send(mail("bad@ksug.org"));
+		for (int i = 0; i < 5; i++) asyncMailSender.send(mail("user" + i + "@ksug.org"));
+		asyncMailSender.stop();
+
+		assertThat(asyncMailSender.getFailedCount(), is(1L));
+		assertThat(asyncMailSender.getSentCount(), is(5L));
+	}
+
+	@Test
+	public void countDroppedOnInterrupt() {
+		Thread.currentThread().interrupt();
+		asyncMailSender.send(new SimpleMailMessage[] { mail("user1@ksug.org"), mail("user2@ksug.org") });
+		assertThat(Thread.interrupted(), is(true));
+		asyncMailSender.stop();
+
+		assertThat(asyncMailSender.getDroppedCount(), is(2L));
+		assertThat(recordingMailSender.getRequests().size(), is(0));
+	}
+
+	private void completeTransaction(int status) {
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		for (TransactionSynchronization synchronization : synchronizations) {
+			if (status == TransactionSynchronization.STATUS_COMMITTED) synchronization.afterCommit();
+			synchronization.afterCompletion(status);
+		}
+		TransactionSynchronizationManager.clearSynchronization();
+	}
+
+	private SimpleMailMessage mail(String to) {
+		SimpleMailMessage mailMessage = new SimpleMailMessage();
+		mailMessage.setTo(to);
+		return mailMessage;
+	}
+
+	static class BatchRecordingMailSender implements MailSender {
+		private List<String> requests = new ArrayList<String>();
+		private List<Integer> batchSizes = new ArrayList<Integer>();
+
+		public List<String> getRequests() { return requests; }
+		public List<Integer> getBatchSizes() { return batchSizes; }
+
+		public void send(SimpleMailMessage mailMessage) throws MailException {
+			send(new SimpleMailMessage[] { mailMessage });
+		}
+
+		public void send(SimpleMailMessage[] mailMessages) throws MailException {
+			batchSizes.add(mailMessages.length);
+			for (SimpleMailMessage mailMessage : mailMessages) {
+				requests.add(mailMessage.getTo()[0]);
+			}
+		}
+	}
+}
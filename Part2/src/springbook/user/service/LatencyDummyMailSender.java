@@ -0,0 +1,41 @@
+package springbook.user.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+
+public class LatencyDummyMailSender extends DummyMailSender {
+	private long connectionLatencyMillis = 50;
+	private long messageLatencyMillis = 5;
+
+	private final AtomicLong sendCount = new AtomicLong();
+	private final AtomicLong messageCount = new AtomicLong();
+
+	public void setConnectionLatencyMillis(long connectionLatencyMillis) {
+		this.connectionLatencyMillis = connectionLatencyMillis;
+	}
+
+	public void setMessageLatencyMillis(long messageLatencyMillis) {
+		this.messageLatencyMillis = messageLatencyMillis;
+	}
+
+	public void send(SimpleMailMessage mailMessage) throws MailException {
+		send(new SimpleMailMessage[] { mailMessage });
+	}
+
+	public void send(SimpleMailMessage[] mailMessages) throws MailException {
+		try {
+			Thread.sleep(connectionLatencyMillis + messageLatencyMillis * mailMessages.length);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MailSendException(" ߼ ߴܵǾϴ", e);
+		}
+		sendCount.incrementAndGet();
+		messageCount.addAndGet(mailMessages.length);
+	}
+
+	public long getSendCount() { return sendCount.get(); }
+	public long getMessageCount() { return messageCount.get(); }
+}
@@ -0,0 +1,60 @@
+package springbook.user.service;
+
+import springbook.user.domain.User;
+
+public class LevelUpgradeResult {
+	private final String startAfterId;
+	private final long startedAt = System.nanoTime();
+	private long elapsedNanos;
+
+	private String lastId;
+	private int processed;
+	private int upgraded;
+	private int chunks;
+
+	public LevelUpgradeResult(String startAfterId) {
+		this.startAfterId = startAfterId;
+		this.lastId = startAfterId;
+	}
+
+	void userProcessed(User user, boolean upgraded) {
+		this.processed++;
+		if (upgraded) this.upgraded++;
+		this.lastId = user.getId();
+	}
+
+	void merge(LevelUpgradeResult chunk) {
+		if (chunk.processed == 0) return;
+		this.processed += chunk.processed;
+		this.upgraded += chunk.upgraded;
+		this.chunks += Math.max(chunk.chunks, 1);
+		this.lastId = chunk.lastId;
+	}
+
+	void finish() {
+		this.elapsedNanos = System.nanoTime() - this.startedAt;
+	}
+
+	public String getStartAfterId() { return startAfterId; }
+
+	/**  ĿԵ  id.    id    ִ. */
+	public String getLastId() { return lastId; }
+
+	public int getProcessed() { return processed; }
+	public int getUpgraded() { return upgraded; }
+	public int getChunks() { return chunks; }
+
+	public long getElapsedMillis() {
+		return elapsedNanos / 1000000L;
+	}
+
+	public double getUsersPerSecond() {
+		if (elapsedNanos == 0) return 0;
+		return processed * 1000000000.0 / elapsedNanos;
+	}
+
+	public String toString() {
+		return String.format("processed=%d, upgraded=%d, chunks=%d, elapsed=%dms, %.1f users/sec, lastId=%s",
+				processed, upgraded, chunks, getElapsedMillis(), getUsersPerSecond(), lastId);
+	}
+}
@@ -0,0 +1,39 @@
+package springbook.user.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PartitionedLevelUpgradeResult {
+	private final List<String> boundaries;
+	private final List<LevelUpgradeResult> partitions = new ArrayList<LevelUpgradeResult>();
+	private final LevelUpgradeResult total = new LevelUpgradeResult(null);
+
+	PartitionedLevelUpgradeResult(List<String> boundaries) {
+		this.boundaries = boundaries;
+	}
+
+	void addPartition(LevelUpgradeResult partition) {
+		this.partitions.add(partition);
+		this.total.merge(partition);
+	}
+
+	void finish() {
+		this.total.finish();
+	}
+
+	public List<LevelUpgradeResult> getPartitions() { return partitions; }
+
+	public LevelUpgradeResult getTotal() { return total; }
+
+	public String toString() {
+		StringBuilder summary = new StringBuilder();
+		summary.append("partitions=").append(partitions.size()).append(", ").append(total);
+		for (int i = 0; i < partitions.size(); i++) {
+			LevelUpgradeResult partition = partitions.get(i);
+			summary.append(String.format("%n  #%d (%s, %s] processed=%d, upgraded=%d, elapsed=%dms, %.1f users/sec",
+					i, boundaries.get(i), boundaries.get(i + 1), partition.getProcessed(), partition.getUpgraded(),
+					partition.getElapsedMillis(), partition.getUsersPerSecond()));
+		}
+		return summary.toString();
+	}
+}
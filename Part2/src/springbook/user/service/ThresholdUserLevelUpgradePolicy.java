@@ -0,0 +1,80 @@
+package springbook.user.service;
+
+import java.util.Arrays;
+import java.util.Properties;
+
+import springbook.user.dao.UpgradeCandidateCondition;
+import springbook.user.domain.Level;
+import springbook.user.domain.User;
+
+/**
+ * "BASIC.minLogin=50", "SILVER.minRecommend=30"  Ģ Level.ordinal()  ã 迭 ̸ Ѵ.
+ * Ģ   ׷̵ ʴ´.
+ */
+public class ThresholdUserLevelUpgradePolicy implements UserLevelUpgradePolicy {
+	private static final int NO_RULE = Integer.MIN_VALUE;
+
+	private boolean[] upgradable = new boolean[Level.values().length];
+	private int[] minLogin = new int[Level.values().length];
+	private int[] minRecommend = new int[Level.values().length];
+	private UpgradeCandidateCondition candidateCondition = new UpgradeCandidateCondition(0, 0, 0);
+
+	public void setRules(Properties rules) {
+		int size = Level.values().length;
+		boolean[] upgradable = new boolean[size];
+		int[] minLogin = new int[size];
+		int[] minRecommend = new int[size];
+		Arrays.fill(minLogin, NO_RULE);
+		Arrays.fill(minRecommend, NO_RULE);
+
+		for (String key : rules.stringPropertyNames()) {
+			int dot = key.indexOf('.');
+			if (dot < 0) throw new IllegalArgumentException("߸ ׷̵ ĢԴϴ: " + key);
+			Level level = Level.valueOf(key.substring(0, dot));
+			if (level.nextLevel() == null) throw new IllegalArgumentException(level + " ׷̵   Դϴ");
+
+			String name = key.substring(dot + 1);
+			int value = Integer.parseInt(rules.getProperty(key).trim());
+			if ("minLogin".equals(name)) minLogin[level.ordinal()] = value;
+			else if ("minRecommend".equals(name)) minRecommend[level.ordinal()] = value;
+			else throw new IllegalArgumentException("߸ ׷̵ ĢԴϴ: " + key);
+			upgradable[level.ordinal()] = true;
+		}
+
+		this.candidateCondition = compileCandidateCondition(upgradable, minLogin, minRecommend);
+		this.minLogin = minLogin;
+		this.minRecommend = minRecommend;
+		this.upgradable = upgradable;
+	}
+
+	//   Ģ  ϴ  . Ȯ Ǵ canUpgradeLevel() ٽ Ѵ.
+	private UpgradeCandidateCondition compileCandidateCondition(boolean[] upgradable, int[] minLogin, int[] minRecommend) {
+		int levelBelow = 0;
+		int candidateMinLogin = Integer.MAX_VALUE;
+		int candidateMinRecommend = Integer.MAX_VALUE;
+		for (Level level : Level.values()) {
+			int i = level.ordinal();
+			if (!upgradable[i]) continue;
+			levelBelow = Math.max(levelBelow, level.intValue() + 1);
+			if (minLogin[i] == NO_RULE && minRecommend[i] == NO_RULE) {
+				return new UpgradeCandidateCondition(levelBelow, Integer.MIN_VALUE, Integer.MIN_VALUE);
+			}
+			if (minLogin[i] != NO_RULE) candidateMinLogin = Math.min(candidateMinLogin, minLogin[i]);
+			if (minRecommend[i] != NO_RULE) candidateMinRecommend = Math.min(candidateMinRecommend, minRecommend[i]);
+		}
+		return new UpgradeCandidateCondition(levelBelow, candidateMinLogin, candidateMinRecommend);
+	}
+
+	public boolean canUpgradeLevel(User user) {
+		int i = user.getLevel().ordinal();
+		return upgradable[i] && user.getLogin() >= minLogin[i] && user.getRecommend() >= minRecommend[i];
+	}
+
+	public void upgradeLevel(User user) {
+		user.upgradeLevel();
+	}
+
+	public UpgradeCandidateCondition getCandidateCondition() {
+		return candidateCondition;
+	}
+}
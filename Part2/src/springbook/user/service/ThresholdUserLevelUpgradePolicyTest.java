@@ -0,0 +1,73 @@
+package springbook.user.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Properties;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import springbook.user.dao.UpgradeCandidateCondition;
+import springbook.user.domain.Level;
+import springbook.user.domain.User;
+
+public class ThresholdUserLevelUpgradePolicyTest {
+	ThresholdUserLevelUpgradePolicy policy;
+	
+	@Before
+	public void setUp() {
+		Properties rules = new Properties();
+		rules.setProperty("BASIC.minLogin", "50");
+		rules.setProperty("SILVER.minRecommend", "30");
+		policy = new ThresholdUserLevelUpgradePolicy();
+		policy.setRules(rules);
+	}
+
+	@Test
+	public void canUpgradeLevel() {
+		assertThat(policy.canUpgradeLevel(user(Level.BASIC, 49, 100)), is(false));
+		assertThat(policy.canUpgradeLevel(user(Level.BASIC, 50, 0)), is(true));
+		assertThat(policy.canUpgradeLevel(user(Level.SILVER, 1000, 29)), is(false));
+		assertThat(policy.canUpgradeLevel(user(Level.SILVER, 0, 30)), is(true));
+		assertThat(policy.canUpgradeLevel(user(Level.GOLD, Integer.MAX_VALUE, Integer.MAX_VALUE)), is(false));
+	}
+	
+	@Test
+	public void combinedRule() {
+		Properties rules = new Properties();
+		rules.setProperty("BASIC.minLogin", "10");
+		rules.setProperty("BASIC.minRecommend", "5");
+		policy.setRules(rules);
+		
+		assertThat(policy.canUpgradeLevel(user(Level.BASIC, 10, 4)), is(false));
+		assertThat(policy.canUpgradeLevel(user(Level.BASIC, 10, 5)), is(true));
+		assertThat(policy.canUpgradeLevel(user(Level.SILVER, 100, 100)), is(false));
+	}
+	
+	@Test
+	public void candidateCondition() {
+		UpgradeCandidateCondition condition = policy.getCandidateCondition();
+		assertThat(condition.getLevelBelow(), is(Level.SILVER.intValue() + 1));
+		assertThat(condition.getMinLogin(), is(50));
+		assertThat(condition.getMinRecommend(), is(30));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void unknownRule() {
+		Properties rules = new Properties();
+		rules.setProperty("BASIC.maxLogin", "10");
+		policy.setRules(rules);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void ruleForLastLevel() {
+		Properties rules = new Properties();
+		rules.setProperty("GOLD.minLogin", "10");
+		policy.setRules(rules);
+	}
+
+	private User user(Level level, int login, int recommend) {
+		return new User("id", "name", "p", "id@ksug.org", level, login, recommend);
+	}
+}
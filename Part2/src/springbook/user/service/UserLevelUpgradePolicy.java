@@ -0,0 +1,13 @@
+package springbook.user.service;
+
+import springbook.user.dao.UpgradeCandidateCondition;
+import springbook.user.domain.User;
+
+public interface UserLevelUpgradePolicy {
+	boolean canUpgradeLevel(User user);
+
+	void upgradeLevel(User user);
+
+	/** ĺ DB ̸ ɷ   å̸ null */
+	UpgradeCandidateCondition getCandidateCondition();
+}
@@ -2,6 +2,7 @@ package springbook.user.service;
 
 import java.util.List;
 
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import springbook.user.domain.User;
@@ -19,4 +20,10 @@ public interface UserService {
 	List<User> getAll();
 	
 	void upgradeLevels();
+	
+	@Transactional(propagation=Propagation.NOT_SUPPORTED)
+	LevelUpgradeResult upgradeLevelsInChunks(String startAfterId);
+	
+	@Transactional(propagation=Propagation.NOT_SUPPORTED)
+	PartitionedLevelUpgradeResult upgradeLevelsInPartitions(int partitionCount);
 }
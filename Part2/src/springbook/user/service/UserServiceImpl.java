@@ -1,10 +1,22 @@
 package springbook.user.service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.springframework.mail.MailSender;
 import org.springframework.mail.SimpleMailMessage;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import springbook.user.dao.UpgradeCandidateCondition;
 import springbook.user.dao.UserDao;
 import springbook.user.domain.Level;
 import springbook.user.domain.User;
@@ -12,9 +24,16 @@ import springbook.user.domain.User;
 public class UserServiceImpl implements UserService {
 	public static final int MIN_LOGCOUNT_FOR_SILVER = 50;
 	public static final int MIN_RECCOMEND_FOR_GOLD = 30;
+	public static final int DEFAULT_CHUNK_SIZE = 1000;
+	public static final int DEFAULT_UPDATE_BATCH_SIZE = 100;
 
 	private UserDao userDao;
 	private MailSender mailSender;
+	private PlatformTransactionManager transactionManager;
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+	private int updateBatchSize = DEFAULT_UPDATE_BATCH_SIZE;
+	private ExecutorService upgradeExecutor;
+	private UserLevelUpgradePolicy userLevelUpgradePolicy = defaultUserLevelUpgradePolicy();
 
 	public void setUserDao(UserDao userDao) {
 		this.userDao = userDao;
@@ -23,30 +42,160 @@ public class UserServiceImpl implements UserService {
 	public void setMailSender(MailSender mailSender) {
 		this.mailSender = mailSender;
 	}
+
+	public void setTransactionManager(PlatformTransactionManager transactionManager) {
+		this.transactionManager = transactionManager;
+	}
+
+	public void setChunkSize(int chunkSize) {
+		this.chunkSize = chunkSize;
+	}
+
+	public void setUpdateBatchSize(int updateBatchSize) {
+		this.updateBatchSize = updateBatchSize;
+	}
+
+	public void setUpgradeExecutor(ExecutorService upgradeExecutor) {
+		this.upgradeExecutor = upgradeExecutor;
+	}
+
+	public void setUserLevelUpgradePolicy(UserLevelUpgradePolicy userLevelUpgradePolicy) {
+		this.userLevelUpgradePolicy = userLevelUpgradePolicy;
+	}
+
+	private static UserLevelUpgradePolicy defaultUserLevelUpgradePolicy() {
+		Properties rules = new Properties();
+		rules.setProperty("BASIC.minLogin", String.valueOf(MIN_LOGCOUNT_FOR_SILVER));
+		rules.setProperty("SILVER.minRecommend", String.valueOf(MIN_RECCOMEND_FOR_GOLD));
+		ThresholdUserLevelUpgradePolicy policy = new ThresholdUserLevelUpgradePolicy();
+		policy.setRules(rules);
+		return policy;
+	}
 	
 	public void upgradeLevels() {
-		List<User> users = userDao.getAll();
+		upgradeLevels(userDao.getAll(), new LevelUpgradeResult(null));
+	}
+	
+	private void upgradeLevels(List<User> users, LevelUpgradeResult result) {
+		List<User> upgraded = new ArrayList<User>();
 		for (User user : users) {
-			if (canUpgradeLevel(user)) {
+			boolean upgradable = canUpgradeLevel(user);
+			if (upgradable) {
 				upgradeLevel(user);
+				upgraded.add(user);
+				if (upgraded.size() >= this.updateBatchSize) {
+					saveUpgraded(upgraded);
+					upgraded = new ArrayList<User>();
+				}
 			}
+			result.userProcessed(user, upgradable);
+		}
+		if (!upgraded.isEmpty()) {
+			saveUpgraded(upgraded);
 		}
 	}
 	
-	private boolean canUpgradeLevel(User user) {
-		Level currentLevel = user.getLevel(); 
-		switch(currentLevel) {                                   
-		case BASIC: return (user.getLogin() >= MIN_LOGCOUNT_FOR_SILVER); 
-		case SILVER: return (user.getRecommend() >= MIN_RECCOMEND_FOR_GOLD);
-		case GOLD: return false;
-		default: throw new IllegalArgumentException("Unknown Level: " + currentLevel); 
+	//    DB ݿ ڿ 
+	private void saveUpgraded(List<User> upgraded) {
+		userDao.updateAll(upgraded);
+		for (User user : upgraded) {
+			sendUpgradeEMail(user);
+		}
+	}
+	
+	public LevelUpgradeResult upgradeLevelsInChunks(String startAfterId) {
+		return upgradeRange(startAfterId, null);
+	}
+
+	public PartitionedLevelUpgradeResult upgradeLevelsInPartitions(int partitionCount) {
+		List<String> boundaries = partitionBoundaries(partitionCount);
+		PartitionedLevelUpgradeResult result = new PartitionedLevelUpgradeResult(boundaries);
+		
+		ExecutorService executor = this.upgradeExecutor;
+		if (executor == null) executor = Executors.newFixedThreadPool(Math.max(boundaries.size() - 1, 1));
+		try {
+			List<Future<LevelUpgradeResult>> futures = new ArrayList<Future<LevelUpgradeResult>>();
+			for (int i = 0; i < boundaries.size() - 1; i++) {
+				final String afterId = boundaries.get(i);
+				final String upToId = boundaries.get(i + 1);
+				futures.add(executor.submit(new Callable<LevelUpgradeResult>() {
+					public LevelUpgradeResult call() {
+						return upgradeRange(afterId, upToId);
+					}
+				}));
+			}
+			for (Future<LevelUpgradeResult> future : futures) {
+				result.addPartition(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			if (e.getCause() instanceof Error) throw (Error) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			if (executor != this.upgradeExecutor) executor.shutdown();
 		}
+		
+		result.finish();
+		return result;
+	}
+
+	// ù (null)  (null),   id  Ƽ (afterId, upToId]  ȴ
+	private List<String> partitionBoundaries(int partitionCount) {
+		int count = userDao.getCount();
+		List<String> boundaries = new ArrayList<String>();
+		boundaries.add(null);
+		for (int i = 1; i < partitionCount; i++) {
+			int position = (int) ((long) count * i / partitionCount) - 1;
+			if (position < 0) continue;
+			String id = userDao.getIdAt(position);
+			if (!id.equals(boundaries.get(boundaries.size() - 1))) boundaries.add(id);
+		}
+		boundaries.add(null);
+		return boundaries;
+	}
+
+	private LevelUpgradeResult upgradeRange(String startAfterId, String upToId) {
+		LevelUpgradeResult result = new LevelUpgradeResult(startAfterId);
+		LevelUpgradeResult chunk;
+		do {
+			chunk = upgradeChunk(result.getLastId(), upToId);
+			result.merge(chunk);
+		} while (chunk.getProcessed() == this.chunkSize);
+		result.finish();
+		return result;
+	}
+
+	private LevelUpgradeResult upgradeChunk(final String lastId, final String upToId) {
+		return new TransactionTemplate(this.transactionManager).execute(
+			new TransactionCallback<LevelUpgradeResult>() {
+				public LevelUpgradeResult doInTransaction(TransactionStatus status) {
+					LevelUpgradeResult chunk = new LevelUpgradeResult(lastId);
+					upgradeLevels(readChunk(lastId, upToId), chunk);
+					return chunk;
+				}
+			});
+	}
+	
+	private List<User> readChunk(String lastId, String upToId) {
+		UpgradeCandidateCondition condition = userLevelUpgradePolicy.getCandidateCondition();
+		if (condition == null) {
+			return (upToId == null) ? 
+					userDao.getAllAfter(lastId, chunkSize) : userDao.getAllBetween(lastId, upToId, chunkSize);
+		}
+		return (upToId == null) ? 
+				userDao.getUpgradeCandidatesAfter(lastId, condition, chunkSize) : 
+				userDao.getUpgradeCandidatesBetween(lastId, upToId, condition, chunkSize);
+	}
+	
+	private boolean canUpgradeLevel(User user) {
+		return userLevelUpgradePolicy.canUpgradeLevel(user);
 	}
 
 	protected void upgradeLevel(User user) {
-		user.upgradeLevel();
-		userDao.update(user);
-		sendUpgradeEMail(user);
+		userLevelUpgradePolicy.upgradeLevel(user);
 	}
 	
 	private void sendUpgradeEMail(User user) {
@@ -4,7 +4,11 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -13,6 +17,7 @@ import static springbook.user.service.UserServiceImpl.MIN_RECCOMEND_FOR_GOLD;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 import org.junit.Before;
@@ -28,9 +33,11 @@ import org.springframework.mail.SimpleMailMessage;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import springbook.user.dao.UpgradeCandidateCondition;
 import springbook.user.dao.UserDao;
 import springbook.user.domain.Level;
 import springbook.user.domain.User;
@@ -106,11 +113,20 @@ public class UserServiceTest {
 		public void update(User user) {  
 			updated.add(user);
 		}
+
+		public void updateAll(Collection<User> users) {
+			updated.addAll(users);
+		}
 		
 		public void add(User user) { throw new UnsupportedOperationException(); }
 		public void deleteAll() { throw new UnsupportedOperationException(); }
 		public User get(String id) { throw new UnsupportedOperationException(); }
 		public int getCount() { throw new UnsupportedOperationException(); }
+		public List<User> getAllAfter(String lastId, int limit) { throw new UnsupportedOperationException(); }
+		public List<User> getAllBetween(String lastId, String upToId, int limit) { throw new UnsupportedOperationException(); }
+		public String getIdAt(int position) { throw new UnsupportedOperationException(); }
+		public List<User> getUpgradeCandidatesAfter(String lastId, UpgradeCandidateCondition condition, int limit) { throw new UnsupportedOperationException(); }
+		public List<User> getUpgradeCandidatesBetween(String lastId, String upToId, UpgradeCandidateCondition condition, int limit) { throw new UnsupportedOperationException(); }
 	}
 	
 	static class MockMailSender implements MailSender {
@@ -141,11 +157,9 @@ public class UserServiceTest {
 
 		userServiceImpl.upgradeLevels();
 
-		verify(mockUserDao, times(2)).update(any(User.class));				  
-		verify(mockUserDao, times(2)).update(any(User.class));
-		verify(mockUserDao).update(users.get(1));
+		verify(mockUserDao, never()).update(any(User.class));
+		verify(mockUserDao).updateAll(Arrays.asList(users.get(1), users.get(3)));
 		assertThat(users.get(1).getLevel(), is(Level.SILVER));
-		verify(mockUserDao).update(users.get(3));
 		assertThat(users.get(3).getLevel(), is(Level.GOLD));
 
 		ArgumentCaptor<SimpleMailMessage> mailMessageArg = ArgumentCaptor.forClass(SimpleMailMessage.class);  
@@ -155,6 +169,75 @@ public class UserServiceTest {
 		assertThat(mailMessages.get(1).getTo()[0], is(users.get(3).getEmail()));
 	}	
 
+	@Test
+	public void upgradeLevelsInUpdateBatches() throws Exception {
+		UserServiceImpl userServiceImpl = new UserServiceImpl();
+		userServiceImpl.setUpdateBatchSize(1);
+
+		UserDao mockUserDao = mock(UserDao.class);
+		when(mockUserDao.getAll()).thenReturn(this.users);
+		userServiceImpl.setUserDao(mockUserDao);
+		userServiceImpl.setMailSender(mock(MailSender.class));
+
+		userServiceImpl.upgradeLevels();
+
+		verify(mockUserDao, times(2)).updateAll(anyCollectionOf(User.class));
+		verify(mockUserDao).updateAll(Arrays.asList(users.get(1)));
+		verify(mockUserDao).updateAll(Arrays.asList(users.get(3)));
+	}
+
+	@Test
+	public void upgradeLevelsInChunks() throws Exception {
+		UserServiceImpl userServiceImpl = new UserServiceImpl();
+		userServiceImpl.setChunkSize(2);
+
+		UserDao mockUserDao = mock(UserDao.class);
+		when(mockUserDao.getUpgradeCandidatesAfter((String) isNull(), any(UpgradeCandidateCondition.class), eq(2))).thenReturn(users.subList(0, 2));
+		when(mockUserDao.getUpgradeCandidatesAfter(eq("joytouch"), any(UpgradeCandidateCondition.class), eq(2))).thenReturn(users.subList(2, 4));
+		when(mockUserDao.getUpgradeCandidatesAfter(eq("madnite1"), any(UpgradeCandidateCondition.class), eq(2))).thenReturn(users.subList(4, 5));
+		userServiceImpl.setUserDao(mockUserDao);
+		userServiceImpl.setMailSender(mock(MailSender.class));
+
+		PlatformTransactionManager mockTransactionManager = mock(PlatformTransactionManager.class);
+		userServiceImpl.setTransactionManager(mockTransactionManager);
+
+		LevelUpgradeResult result = userServiceImpl.upgradeLevelsInChunks(null);
+
+		assertThat(result.getProcessed(), is(5));
+		assertThat(result.getUpgraded(), is(2));
+		assertThat(result.getChunks(), is(3));
+		assertThat(result.getLastId(), is("green"));
+		verify(mockTransactionManager, times(3)).commit(any(TransactionStatus.class));
+		verify(mockUserDao).updateAll(Arrays.asList(users.get(1)));
+		verify(mockUserDao).updateAll(Arrays.asList(users.get(3)));
+	}
+
+	@Test
+	public void upgradeLevelsInPartitions() throws Exception {
+		UserServiceImpl userServiceImpl = new UserServiceImpl();
+		userServiceImpl.setChunkSize(10);
+
+		UserDao mockUserDao = mock(UserDao.class);
+		when(mockUserDao.getCount()).thenReturn(5);
+		when(mockUserDao.getIdAt(1)).thenReturn("joytouch");
+		when(mockUserDao.getUpgradeCandidatesBetween((String) isNull(), eq("joytouch"), any(UpgradeCandidateCondition.class), eq(10))).thenReturn(users.subList(0, 2));
+		when(mockUserDao.getUpgradeCandidatesAfter(eq("joytouch"), any(UpgradeCandidateCondition.class), eq(10))).thenReturn(users.subList(2, 5));
+		userServiceImpl.setUserDao(mockUserDao);
+		userServiceImpl.setMailSender(mock(MailSender.class));
+		userServiceImpl.setTransactionManager(mock(PlatformTransactionManager.class));
+
+		PartitionedLevelUpgradeResult result = userServiceImpl.upgradeLevelsInPartitions(2);
+
+		assertThat(result.getPartitions().size(), is(2));
+		assertThat(result.getPartitions().get(0).getProcessed(), is(2));
+		assertThat(result.getPartitions().get(0).getLastId(), is("joytouch"));
+		assertThat(result.getPartitions().get(1).getProcessed(), is(3));
+		assertThat(result.getTotal().getProcessed(), is(5));
+		assertThat(result.getTotal().getUpgraded(), is(2));
+		verify(mockUserDao).updateAll(Arrays.asList(users.get(1)));
+		verify(mockUserDao).updateAll(Arrays.asList(users.get(3)));
+	}
+
 	private void checkLevelUpgraded(User user, boolean upgraded) {
 		User userUpdate = userDao.get(user.getId());
 		if (upgraded) {
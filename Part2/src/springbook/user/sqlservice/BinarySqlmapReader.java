@@ -0,0 +1,167 @@
+package springbook.user.sqlservice;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.FileCopyUtils;
+
+import springbook.user.dao.UserDao;
+
+/**
+ *   sqlmap.xml ̸ ȯ  ̳ʸ  XML Ľ  д´.
+ * ̳ʸ ų  XML ũ, CRC ٸ XML д´.
+ * ̳ʸ ߷Ȱų      .
+ *
+ *  : MAGIC, VERSION,  ,  CRC32, SQL , (key, sql)..., պκ ü CRC32
+ * ڿ UTF-8  + Ʈ
+ */
+public class BinarySqlmapReader implements SqlReader {
+	static final int MAGIC = 0x53514c42;	// "SQLB"
+	static final int VERSION = 2;
+	private static final int TRAILER_LENGTH = 8;
+
+	private Resource sqlmap = new ClassPathResource("sqlmap.xml", UserDao.class);
+	private Resource compiledSqlmap = new ClassPathResource("sqlmap.sqlbin", UserDao.class);
+	private boolean compiledUsed;
+
+	public void setSqlmap(Resource sqlmap) {
+		this.sqlmap = sqlmap;
+	}
+
+	public void setCompiledSqlmap(Resource compiledSqlmap) {
+		this.compiledSqlmap = compiledSqlmap;
+	}
+
+	public void read(SqlRegistry sqlRegistry) {
+		try {
+			byte[] source = sqlmap.exists() ? FileCopyUtils.copyToByteArray(sqlmap.getInputStream()) : null;
+			if (compiledSqlmap.exists() && readCompiled(sqlRegistry, source)) {
+				compiledUsed = true;
+				return;
+			}
+			if (source == null) throw new IllegalArgumentException(sqlmap.getFilename() + "   ϴ");
+
+			compiledUsed = false;
+			StaxXmlSqlReader xmlReader = new StaxXmlSqlReader();
+			xmlReader.setSqlmap(new ByteArrayResource(source));
+			xmlReader.read(sqlRegistry);
+		} catch (IOException e) {
+			throw new IllegalArgumentException(sqlmap.getFilename() + "   ϴ", e);
+		}
+	}
+
+	/**  read() ̳ʸ   */
+	public boolean isCompiledUsed() {
+		return compiledUsed;
+	}
+
+	//  XML  ̳ʸ ״ ϴ´. дٰ ϸ  ̳ʸ  Ѵ.
+	private boolean readCompiled(SqlRegistry sqlRegistry, byte[] source) {
+		Map<String, String> sqls;
+		try {
+			byte[] compiled = FileCopyUtils.copyToByteArray(compiledSqlmap.getInputStream());
+			if (compiled.length < TRAILER_LENGTH) return false;
+			int payloadLength = compiled.length - TRAILER_LENGTH;
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(compiled));
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) return false;
+			long sourceLength = in.readLong();
+			long sourceCrc = in.readLong();
+			if (source != null && (sourceLength != source.length || sourceCrc != crc(source, source.length))) return false;
+			if (readLong(compiled, payloadLength) != crc(compiled, payloadLength)) return false;
+
+			int count = in.readInt();
+			if (count < 0) return false;
+			sqls = new LinkedHashMap<String, String>(count * 2);
+			for (int i = 0; i < count; i++) {
+				sqls.put(readString(in), readString(in));
+			}
+		} catch (IOException e) {
+			return false;
+		}
+		for (Map.Entry<String, String> entry : sqls.entrySet()) {
+			sqlRegistry.registerSql(entry.getKey(), entry.getValue());
+		}
+		return true;
+	}
+
+	public static void compile(Resource sqlmap, File compiledSqlmap) throws IOException {
+		byte[] source = FileCopyUtils.copyToByteArray(sqlmap.getInputStream());
+		final Map<String, String> sqls = new LinkedHashMap<String, String>();
+		StaxXmlSqlReader xmlReader = new StaxXmlSqlReader();
+		xmlReader.setSqlmap(new ByteArrayResource(source));
+		xmlReader.read(new SqlRegistry() {
+			public void registerSql(String key, String sql) {
+				sqls.put(key, sql);
+			}
+
+			public String findSql(String key) throws SqlNotFoundException {
+				return sqls.get(key);
+			}
+		});
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeLong(source.length);
+		out.writeLong(crc(source, source.length));
+		out.writeInt(sqls.size());
+		for (Map.Entry<String, String> entry : sqls.entrySet()) {
+			writeString(out, entry.getKey());
+			writeString(out, entry.getValue());
+		}
+		out.writeLong(crc(bytes.toByteArray(), bytes.size()));
+		FileCopyUtils.copy(bytes.toByteArray(), compiledSqlmap);
+	}
+
+	private static long crc(byte[] bytes, int length) {
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 0, length);
+		return crc.getValue();
+	}
+
+	private static long readLong(byte[] bytes, int offset) throws IOException {
+		return new DataInputStream(new ByteArrayInputStream(bytes, offset, TRAILER_LENGTH)).readLong();
+	}
+
+	//    ū 迭  ʵ  Ʈ  Ѵ
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0 || length > in.available()) throw new EOFException();
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, "UTF-8");
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes("UTF-8");
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 *  ܰ迡 Ѵ.
+	 * java springbook.user.sqlservice.BinarySqlmapReader sqlmap.xml sqlmap.sqlbin
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("usage: BinarySqlmapReader <sqlmap.xml> <sqlmap.sqlbin>");
+			System.exit(1);
+		}
+		File compiledSqlmap = new File(args[1]);
+		if (compiledSqlmap.getParentFile() != null) compiledSqlmap.getParentFile().mkdirs();
+		compile(new FileSystemResource(args[0]), compiledSqlmap);
+	}
+}
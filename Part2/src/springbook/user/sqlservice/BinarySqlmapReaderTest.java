@@ -0,0 +1,104 @@
+package springbook.user.sqlservice;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.util.FileCopyUtils;
+
+import springbook.user.dao.UserDao;
+import springbook.user.sqlservice.StaxXmlSqlReaderTest.MapSqlRegistry;
+
+public class BinarySqlmapReaderTest {
+	File compiledSqlmap;
+	BinarySqlmapReader sqlReader;
+	Map<String, String> expected;
+	
+	@Before
+	public void setUp() throws IOException {
+		compiledSqlmap = File.createTempFile("sqlmap", ".sqlbin");
+		sqlReader = new BinarySqlmapReader();
+		sqlReader.setCompiledSqlmap(new FileSystemResource(compiledSqlmap));
+		
+		expected = new LinkedHashMap<String, String>();
+		new StaxXmlSqlReader().read(new MapSqlRegistry(expected));
+	}
+	
+	@After
+	public void tearDown() {
+		compiledSqlmap.delete();
+	}
+	
+	@Test
+	public void readCompiled() throws IOException {
+		BinarySqlmapReader.compile(new ClassPathResource("sqlmap.xml", UserDao.class), compiledSqlmap);
+		
+		Map<String, String> sqls = new LinkedHashMap<String, String>();
+		sqlReader.read(new MapSqlRegistry(sqls));
+		
+		assertThat(sqlReader.isCompiledUsed(), is(true));
+		assertThat(sqls, is(expected));
+	}
+	
+	@Test
+	public void fallbackToXmlWhenStale() throws IOException {
+		BinarySqlmapReader.compile(new ByteArrayResource((
+				"<sqlmap xmlns=\"http://www.epril.com/sqlmap\"><sql key=\"userGet\">old</sql></sqlmap>").getBytes("UTF-8")), 
+				compiledSqlmap);
+		
+		Map<String, String> sqls = new LinkedHashMap<String, String>();
+		sqlReader.read(new MapSqlRegistry(sqls));
+		
+		assertThat(sqlReader.isCompiledUsed(), is(false));
+		assertThat(sqls, is(expected));
+	}
+	
+	@Test
+	public void fallbackToXmlWhenTruncated() throws IOException {
+		BinarySqlmapReader.compile(new ClassPathResource("sqlmap.xml", UserDao.class), compiledSqlmap);
+		byte[] compiled = FileCopyUtils.copyToByteArray(compiledSqlmap);
+		FileCopyUtils.copy(Arrays.copyOf(compiled, compiled.length / 2), compiledSqlmap);
+		
+		Map<String, String> sqls = new LinkedHashMap<String, String>();
+		sqlReader.read(new MapSqlRegistry(sqls));
+		
+		assertThat(sqlReader.isCompiledUsed(), is(false));
+		assertThat(sqls, is(expected));
+	}
+	
+	@Test
+	public void fallbackToXmlWhenCorrupt() throws IOException {
+		BinarySqlmapReader.compile(new ClassPathResource("sqlmap.xml", UserDao.class), compiledSqlmap);
+		byte[] compiled = FileCopyUtils.copyToByteArray(compiledSqlmap);
+		compiled[compiled.length / 2] ^= 0x7f;
+		FileCopyUtils.copy(compiled, compiledSqlmap);
+		
+		Map<String, String> sqls = new LinkedHashMap<String, String>();
+		sqlReader.read(new MapSqlRegistry(sqls));
+		
+		assertThat(sqlReader.isCompiledUsed(), is(false));
+		assertThat(sqls, is(expected));
+	}
+	
+	@Test
+	public void fallbackToXmlWhenMissing() {
+		compiledSqlmap.delete();
+		
+		Map<String, String> sqls = new LinkedHashMap<String, String>();
+		sqlReader.read(new MapSqlRegistry(sqls));
+		
+		assertThat(sqlReader.isCompiledUsed(), is(false));
+		assertThat(sqls, is(expected));
+	}
+}
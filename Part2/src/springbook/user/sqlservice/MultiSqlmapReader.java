@@ -0,0 +1,128 @@
+package springbook.user.sqlservice;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.io.Resource;
+
+/**
+ * ⸶ ϳ ִ sqlmap  ForkJoinPool ÿ о ϳ Ʈ ģ.
+ * Ű "ӽ̽.Ű" ϰ, ӽ̽ ""̸ Ű ״ .
+ */
+public class MultiSqlmapReader implements SqlReader {
+	private final Log log = LogFactory.getLog(getClass());
+
+	private Map<String, Resource> sqlmaps = new LinkedHashMap<String, Resource>();
+	private ForkJoinPool pool;
+	private List<SqlmapParseResult> parseResults = Collections.emptyList();
+
+	/** ӽ̽ sqlmap  */
+	public void setSqlmaps(Map<String, Resource> sqlmaps) {
+		this.sqlmaps = sqlmaps;
+	}
+
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	public void read(SqlRegistry sqlRegistry) {
+		ForkJoinPool pool = this.pool != null ? this.pool : new ForkJoinPool();
+		try {
+			List<Future<ParsedSqlmap>> futures = new ArrayList<Future<ParsedSqlmap>>();
+			for (final Map.Entry<String, Resource> sqlmap : sqlmaps.entrySet()) {
+				futures.add(pool.submit(new Callable<ParsedSqlmap>() {
+					public ParsedSqlmap call() {
+						return parse(sqlmap.getKey(), sqlmap.getValue());
+					}
+				}));
+			}
+
+			// ߺ Ȯΰ     Ѵ
+			Map<String, String> sqls = new LinkedHashMap<String, String>();
+			Map<String, String> owners = new HashMap<String, String>();
+			List<SqlmapParseResult> parseResults = new ArrayList<SqlmapParseResult>();
+			for (Future<ParsedSqlmap> future : futures) {
+				ParsedSqlmap parsed = get(future);
+				String filename = parsed.result.getFilename();
+				for (Map.Entry<String, String> sql : parsed.sqls.entrySet()) {
+					String owner = owners.put(sql.getKey(), filename);
+					if (owner != null) {
+						throw new IllegalArgumentException(sql.getKey() + " Ű " + owner + " " + filename + " ߺǾ ֽϴ");
+					}
+					sqls.put(sql.getKey(), sql.getValue());
+				}
+				parseResults.add(parsed.result);
+			}
+
+			for (Map.Entry<String, String> sql : sqls.entrySet()) {
+				sqlRegistry.registerSql(sql.getKey(), sql.getValue());
+			}
+			this.parseResults = parseResults;
+			for (SqlmapParseResult parseResult : parseResults) {
+				log.info("sqlmap оϴ: " + parseResult);
+			}
+		}
+		finally {
+			if (pool != this.pool) pool.shutdown();
+		}
+	}
+
+	private ParsedSqlmap parse(final String namespace, Resource sqlmap) {
+		long started = System.nanoTime();
+		final Map<String, String> sqls = new LinkedHashMap<String, String>();
+		final String filename = sqlmap.getDescription();
+
+		StaxXmlSqlReader xmlReader = new StaxXmlSqlReader();
+		xmlReader.setSqlmap(sqlmap);
+		xmlReader.read(new SqlRegistry() {
+			public void registerSql(String key, String sql) {
+				String qualifiedKey = namespace.length() == 0 ? key : namespace + "." + key;
+				if (sqls.put(qualifiedKey, sql) != null) {
+					throw new IllegalArgumentException(qualifiedKey + " Ű " + filename + " ߺǾ ֽϴ");
+				}
+			}
+
+			public String findSql(String key) throws SqlNotFoundException {
+				return sqls.get(key);
+			}
+		});
+		return new ParsedSqlmap(sqls, new SqlmapParseResult(namespace, filename, sqls.size(), System.nanoTime() - started));
+	}
+
+	private ParsedSqlmap get(Future<ParsedSqlmap> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**  read() ϸ ɸ Ľ ð */
+	public List<SqlmapParseResult> getParseResults() {
+		return parseResults;
+	}
+
+	private static class ParsedSqlmap {
+		final Map<String, String> sqls;
+		final SqlmapParseResult result;
+
+		ParsedSqlmap(Map<String, String> sqls, SqlmapParseResult result) {
+			this.sqls = sqls;
+			this.result = result;
+		}
+	}
+}
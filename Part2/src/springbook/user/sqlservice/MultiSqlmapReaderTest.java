@@ -0,0 +1,65 @@
+package springbook.user.sqlservice;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.UnsupportedEncodingException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import springbook.user.dao.UserDao;
+import springbook.user.sqlservice.StaxXmlSqlReaderTest.MapSqlRegistry;
+
+public class MultiSqlmapReaderTest {
+	MultiSqlmapReader sqlReader;
+	Map<String, Resource> sqlmaps;
+	
+	@Before
+	public void setUp() {
+		sqlReader = new MultiSqlmapReader();
+		sqlmaps = new LinkedHashMap<String, Resource>();
+		sqlReader.setSqlmaps(sqlmaps);
+	}
+	
+	@Test
+	public void readWithNamespaces() throws UnsupportedEncodingException {
+		sqlmaps.put("", new ClassPathResource("sqlmap.xml", UserDao.class));
+		sqlmaps.put("group", sqlmap("<sql key=\"get\">select * from groups where id = ?</sql>"));
+		sqlmaps.put("board", sqlmap("<sql key=\"get\">select * from board where id = ?</sql>"));
+		
+		Map<String, String> sqls = new LinkedHashMap<String, String>();
+		sqlReader.read(new MapSqlRegistry(sqls));
+		
+		assertThat(sqls.get("userGet"), is("select * from users where id = ?"));
+		assertThat(sqls.get("group.get"), is("select * from groups where id = ?"));
+		assertThat(sqls.get("board.get"), is("select * from board where id = ?"));
+		assertThat(sqlReader.getParseResults().size(), is(3));
+		assertThat(sqlReader.getParseResults().get(1).getNamespace(), is("group"));
+		assertThat(sqlReader.getParseResults().get(1).getSqls(), is(1));
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void duplicatedKeyInFiles() throws UnsupportedEncodingException {
+		sqlmaps.put("", sqlmap("<sql key=\"group.get\">select 1</sql>"));
+		sqlmaps.put("group", sqlmap("<sql key=\"get\">select 2</sql>"));
+		
+		sqlReader.read(new MapSqlRegistry(new LinkedHashMap<String, String>()));
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void duplicatedKeyInFile() throws UnsupportedEncodingException {
+		sqlmaps.put("group", sqlmap("<sql key=\"get\">select 1</sql><sql key=\"get\">select 2</sql>"));
+		
+		sqlReader.read(new MapSqlRegistry(new LinkedHashMap<String, String>()));
+	}
+	
+	private Resource sqlmap(String sqls) throws UnsupportedEncodingException {
+		return new ByteArrayResource(("<sqlmap xmlns=\"http://www.epril.com/sqlmap\">" + sqls + "</sqlmap>").getBytes("UTF-8"));
+	}
+}
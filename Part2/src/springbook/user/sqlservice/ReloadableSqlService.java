@@ -0,0 +1,205 @@
+package springbook.user.sqlservice;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.xml.transform.stream.StreamSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.oxm.Unmarshaller;
+
+import springbook.user.sqlservice.jaxb.SqlType;
+import springbook.user.sqlservice.jaxb.Sqlmap;
+
+/**
+ * sqlmap  ٲ ٽ о ޶ SQL updateSql(Map)   ݿѴ.
+ *  ýۿ ִ sqlmap  Ѵ.
+ */
+public class ReloadableSqlService implements SqlService {
+	private final Log log = LogFactory.getLog(getClass());
+
+	private Unmarshaller unmarshaller;
+	private Resource sqlmap;
+	private UpdatableSqlRegistry sqlRegistry;
+	private boolean watch = true;
+
+	private Map<String, String> current = new HashMap<String, String>();
+	private volatile long lastModified;
+	private volatile SqlmapReloadResult lastReload;
+	private volatile int reloadCount;
+
+	private WatchService watchService;
+	private Thread watcher;
+
+	public void setUnmarshaller(Unmarshaller unmarshaller) {
+		this.unmarshaller = unmarshaller;
+	}
+
+	public void setSqlmap(Resource sqlmap) {
+		this.sqlmap = sqlmap;
+	}
+
+	public void setSqlRegistry(UpdatableSqlRegistry sqlRegistry) {
+		this.sqlRegistry = sqlRegistry;
+	}
+
+	public void setWatch(boolean watch) {
+		this.watch = watch;
+	}
+
+	@PostConstruct
+	public void loadSql() {
+		reload();
+		if (watch) startWatching();
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (watchService == null) return;
+		try {
+			watchService.close();
+			watcher.join();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	public String getSql(String key) throws SqlRetrievalFailureException {
+		try {
+			return this.sqlRegistry.findSql(key);
+		}
+		catch(SqlNotFoundException e) {
+			throw new SqlRetrievalFailureException(e);
+		}
+	}
+
+	public synchronized SqlmapReloadResult reload() {
+		long started = System.nanoTime();
+		long modified = lastModified();
+		Map<String, String> parsed = parse();
+		long parsedAt = System.nanoTime();
+
+		// Ͽ  Ű Ʈ  ְ,  reload ߰   Ƿ
+		//  Ľ  ƴ϶ Ʈ  ִ SQL Ѵ
+		Map<String, String> added = new LinkedHashMap<String, String>();
+		Map<String, String> changed = new LinkedHashMap<String, String>();
+		for (Map.Entry<String, String> entry : parsed.entrySet()) {
+			String registered = registeredSql(entry.getKey());
+			if (registered == null) added.put(entry.getKey(), entry.getValue());
+			else if (!registered.equals(entry.getValue())) changed.put(entry.getKey(), entry.getValue());
+		}
+		int removed = 0;
+		for (String key : current.keySet()) {
+			if (!parsed.containsKey(key)) removed++;
+		}
+
+		//  Ű    Ƿ  ϰ, ٲ SQL Ѳ ü
+		if (!added.isEmpty()) sqlRegistry.registerSql(added);
+		if (!changed.isEmpty()) sqlRegistry.updateSql(changed);
+
+		current = parsed;
+		lastModified = modified;
+		reloadCount++;
+		lastReload = new SqlmapReloadResult(parsedAt - started, System.nanoTime() - parsedAt,
+				added.size(), changed.size(), removed);
+		log.info(sqlmap.getFilename() + " оϴ: " + lastReload);
+		return lastReload;
+	}
+
+	private String registeredSql(String key) {
+		try {
+			return sqlRegistry.findSql(key);
+		}
+		catch(SqlNotFoundException e) {
+			return null;
+		}
+	}
+
+	private Map<String, String> parse() {
+		try {
+			Sqlmap sqlmap = (Sqlmap) this.unmarshaller.unmarshal(new StreamSource(this.sqlmap.getInputStream()));
+			Map<String, String> sqls = new LinkedHashMap<String, String>();
+			for(SqlType sql : sqlmap.getSql()) {
+				sqls.put(sql.getKey(), sql.getValue());
+			}
+			return sqls;
+		} catch (IOException e) {
+			throw new IllegalArgumentException(this.sqlmap.getFilename() + "   ϴ", e);
+		}
+	}
+
+	private long lastModified() {
+		try {
+			return sqlmap.lastModified();
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	private void startWatching() {
+		final Path file;
+		try {
+			File sqlmapFile = sqlmap.getFile();
+			if (!sqlmapFile.exists()) return;
+			file = sqlmapFile.toPath().toAbsolutePath();
+			watchService = FileSystems.getDefault().newWatchService();
+			file.getParent().register(watchService,
+					StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+		} catch (IOException e) {
+			// jar  sqlmapó  ƴϸ  ʴ´
+			return;
+		}
+
+		watcher = new Thread(new Runnable() {
+			public void run() {
+				watch(file);
+			}
+		}, "sqlmap-watcher");
+		watcher.setDaemon(true);
+		watcher.start();
+	}
+
+	private void watch(Path file) {
+		try {
+			while (true) {
+				WatchKey key = watchService.take();
+				boolean touched = false;
+				for (WatchEvent<?> event : key.pollEvents()) {
+					if (file.getFileName().equals(event.context())) touched = true;
+				}
+				key.reset();
+				//   忡 ̺Ʈ   Ƿ  ð ٲ  ٽ д´
+				if (touched && lastModified() != lastModified) {
+					try {
+						reload();
+					} catch (RuntimeException e) {
+						//       ִ.    ٽ õѴ.
+						log.warn(sqlmap.getFilename() + " ٽ  ߽ϴ", e);
+					}
+				}
+			}
+		} catch (ClosedWatchServiceException e) {
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	public SqlmapReloadResult getLastReload() { return lastReload; }
+	public int getReloadCount() { return reloadCount; }
+}
@@ -0,0 +1,160 @@
+package springbook.user.sqlservice;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.oxm.jaxb.Jaxb2Marshaller;
+
+import springbook.user.sqlservice.updatable.EmbeddedDbSqlRegistry;
+import springbook.user.sqlservice.updatable.SnapshotSqlRegistry;
+
+public class ReloadableSqlServiceTest {
+	File dir;
+	File sqlmapFile;
+	ReloadableSqlService sqlService;
+	
+	@Before
+	public void setUp() throws Exception {
+		dir = File.createTempFile("sqlmap", "");
+		dir.delete();
+		dir.mkdir();
+		sqlmapFile = new File(dir, "sqlmap.xml");
+		writeSqlmap("KEY1", "SQL1", "KEY2", "SQL2");
+		
+		Jaxb2Marshaller unmarshaller = new Jaxb2Marshaller();
+		unmarshaller.setContextPath("springbook.user.sqlservice.jaxb");
+		unmarshaller.afterPropertiesSet();
+		
+		sqlService = new ReloadableSqlService();
+		sqlService.setUnmarshaller(unmarshaller);
+		sqlService.setSqlmap(new FileSystemResource(sqlmapFile));
+		sqlService.setSqlRegistry(new SnapshotSqlRegistry());
+	}
+	
+	@After
+	public void tearDown() {
+		sqlService.stop();
+		sqlmapFile.delete();
+		dir.delete();
+	}
+	
+	@Test
+	public void reload() throws IOException {
+		sqlService.setWatch(false);
+		sqlService.loadSql();
+		assertThat(sqlService.getSql("KEY1"), is("SQL1"));
+		
+		writeSqlmap("KEY1", "Modified1", "KEY3", "SQL3");
+		SqlmapReloadResult result = sqlService.reload();
+		
+		assertThat(sqlService.getSql("KEY1"), is("Modified1"));
+		assertThat(sqlService.getSql("KEY3"), is("SQL3"));
+		assertThat(result.getAdded(), is(1));
+		assertThat(result.getChanged(), is(1));
+		assertThat(result.getRemoved(), is(1));
+		assertThat(sqlService.getReloadCount(), is(2));
+	}
+	
+	@Test
+	public void reAddRemovedKey() throws IOException {
+		EmbeddedDatabase db = new EmbeddedDatabaseBuilder()
+			.setType(EmbeddedDatabaseType.HSQL)
+			.addScript("classpath:springbook/user/sqlservice/updatable/sqlRegistrySchema.sql")
+			.build();
+		try {
+			EmbeddedDbSqlRegistry sqlRegistry = new EmbeddedDbSqlRegistry();
+			sqlRegistry.setDataSource(db);
+			sqlService.setSqlRegistry(sqlRegistry);
+			sqlService.setWatch(false);
+			sqlService.loadSql();
+			
+			// KEY2 Ͽ  Ʈ  Ƿ ٽ   insert ƴ϶ update
+			writeSqlmap("KEY1", "SQL1");
+			sqlService.reload();
+			writeSqlmap("KEY1", "SQL1", "KEY2", "Modified2");
+			SqlmapReloadResult result = sqlService.reload();
+			
+			assertThat(sqlService.getSql("KEY2"), is("Modified2"));
+			assertThat(result.getAdded(), is(0));
+			assertThat(result.getChanged(), is(1));
+		}
+		finally {
+			db.shutdown();
+		}
+	}
+	
+	@Test
+	public void reloadAfterFailedUpdate() throws IOException {
+		final boolean[] failUpdate = { false };
+		sqlService.setSqlRegistry(new SnapshotSqlRegistry() {
+			public void updateSql(Map<String, String> sqlmap) throws SqlUpdateFailureException {
+				if (failUpdate[0]) throw new SqlUpdateFailureException("update failed");
+				super.updateSql(sqlmap);
+			}
+		});
+		sqlService.setWatch(false);
+		sqlService.loadSql();
+		
+		writeSqlmap("KEY1", "Modified1", "KEY2", "SQL2", "KEY3", "SQL3");
+		failUpdate[0] = true;
+		try {
+			sqlService.reload();
+			fail();
+		}
+		catch(SqlUpdateFailureException e) {}
+		
+		// KEY3 ̹ ϵǷ  reload ٲ KEY1 ݿѴ
+		failUpdate[0] = false;
+		SqlmapReloadResult result = sqlService.reload();
+		assertThat(sqlService.getSql("KEY1"), is("Modified1"));
+		assertThat(sqlService.getSql("KEY3"), is("SQL3"));
+		assertThat(result.getAdded(), is(0));
+		assertThat(result.getChanged(), is(1));
+	}
+	
+	@Test
+	public void reloadOnFileChange() throws Exception {
+		sqlService.loadSql();
+		
+		writeSqlmap("KEY1", "SQL1", "KEY2", "Modified2");
+		sqlmapFile.setLastModified(sqlmapFile.lastModified() + 2000);
+		
+		for (int i = 0; i < 100 && sqlService.getReloadCount() < 2; i++) {
+			Thread.sleep(100);
+		}
+		assertThat(sqlService.getSql("KEY2"), is("Modified2"));
+		assertThat(sqlService.getLastReload().getChanged(), is(1));
+	}
+	
+	private void writeSqlmap(String... keyAndSqls) throws IOException {
+		StringBuilder xml = new StringBuilder();
+		xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		xml.append("<sqlmap xmlns=\"http://www.epril.com/sqlmap\">\n");
+		for (int i = 0; i < keyAndSqls.length; i += 2) {
+			xml.append("\t<sql key=\"").append(keyAndSqls[i]).append("\">").append(keyAndSqls[i + 1]).append("</sql>\n");
+		}
+		xml.append("</sqlmap>\n");
+		
+		Writer writer = new OutputStreamWriter(new FileOutputStream(sqlmapFile), "UTF-8");
+		try {
+			writer.write(xml.toString());
+		} finally {
+			writer.close();
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package springbook.user.sqlservice;
+
+public class SqlmapParseResult {
+	private final String namespace;
+	private final String filename;
+	private final int sqls;
+	private final long parseNanos;
+
+	SqlmapParseResult(String namespace, String filename, int sqls, long parseNanos) {
+		this.namespace = namespace;
+		this.filename = filename;
+		this.sqls = sqls;
+		this.parseNanos = parseNanos;
+	}
+
+	public String getNamespace() { return namespace; }
+	public String getFilename() { return filename; }
+	public int getSqls() { return sqls; }
+
+	public double getParseMillis() {
+		return parseNanos / 1000000.0;
+	}
+
+	public String toString() {
+		return String.format("%s(%s) sqls=%d, parse=%.1fms", namespace, filename, sqls, getParseMillis());
+	}
+}
@@ -0,0 +1,31 @@
+package springbook.user.sqlservice;
+
+public class SqlmapReloadResult {
+	private final long parseNanos;
+	private final long applyNanos;
+	private final int added;
+	private final int changed;
+	private final int removed;
+
+	SqlmapReloadResult(long parseNanos, long applyNanos, int added, int changed, int removed) {
+		this.parseNanos = parseNanos;
+		this.applyNanos = applyNanos;
+		this.added = added;
+		this.changed = changed;
+		this.removed = removed;
+	}
+
+	public long getParseMillis() { return parseNanos / 1000000L; }
+	public long getApplyMillis() { return applyNanos / 1000000L; }
+
+	public int getAdded() { return added; }
+	public int getChanged() { return changed; }
+
+	/** Ʈ   Ƿ  SQL ״  ִ. */
+	public int getRemoved() { return removed; }
+
+	public String toString() {
+		return String.format("added=%d, changed=%d, removed=%d, parse=%dms, apply=%dms",
+				added, changed, removed, getParseMillis(), getApplyMillis());
+	}
+}
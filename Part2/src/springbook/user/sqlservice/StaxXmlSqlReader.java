@@ -0,0 +1,59 @@
+package springbook.user.sqlservice;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import springbook.user.dao.UserDao;
+
+/**
+ * Sqlmap ü  ʰ &lt;sql key="..."&gt; Ʈ д  ٷ Ѵ.
+ */
+public class StaxXmlSqlReader implements SqlReader {
+	public static final String SQLMAP_NAMESPACE = "http://www.epril.com/sqlmap";
+
+	private static final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+	static {
+		inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+	}
+
+	private Resource sqlmap = new ClassPathResource("sqlmap.xml", UserDao.class);
+
+	public void setSqlmap(Resource sqlmap) {
+		this.sqlmap = sqlmap;
+	}
+
+	public void read(SqlRegistry sqlRegistry) {
+		InputStream is = null;
+		try {
+			is = sqlmap.getInputStream();
+			XMLStreamReader reader = inputFactory.createXMLStreamReader(is);
+			try {
+				while (reader.hasNext()) {
+					if (reader.next() == XMLStreamConstants.START_ELEMENT
+							&& "sql".equals(reader.getLocalName())
+							&& SQLMAP_NAMESPACE.equals(reader.getNamespaceURI())) {
+						String key = reader.getAttributeValue(null, "key");
+						if (key == null) throw new IllegalArgumentException(sqlmap.getFilename() + " key  sql ֽϴ");
+						sqlRegistry.registerSql(key, reader.getElementText());
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (IOException e) {
+			throw new IllegalArgumentException(sqlmap.getFilename() + "   ϴ", e);
+		} catch (XMLStreamException e) {
+			throw new RuntimeException(e);
+		} finally {
+			if (is != null) try { is.close(); } catch (IOException e) {}
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package springbook.user.sqlservice;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class StaxXmlSqlReaderTest {
+	@Test
+	public void readSameAsJaxb() {
+		Map<String, String> jaxb = new LinkedHashMap<String, String>();
+		new JaxbXmlSqlReader().read(new MapSqlRegistry(jaxb));
+		
+		Map<String, String> stax = new LinkedHashMap<String, String>();
+		new StaxXmlSqlReader().read(new MapSqlRegistry(stax));
+		
+		assertThat(stax.isEmpty(), is(false));
+		assertThat(stax, is(jaxb));
+	}
+	
+	static class MapSqlRegistry implements SqlRegistry {
+		Map<String, String> sqlMap;
+		
+		MapSqlRegistry(Map<String, String> sqlMap) {
+			this.sqlMap = sqlMap;
+		}
+		
+		public void registerSql(String key, String sql) {
+			sqlMap.put(key, sql);
+		}
+		
+		public String findSql(String key) throws SqlNotFoundException {
+			return sqlMap.get(key);
+		}
+	}
+}
@@ -3,6 +3,8 @@ package springbook.user.sqlservice;
 import java.util.Map;
 
 public interface UpdatableSqlRegistry extends SqlRegistry {
+	public void registerSql(Map<String, String> sqlmap);
+	
 	public void updateSql(String key, String sql) throws SqlUpdateFailureException;
 	
 	public void updateSql(Map<String, String> sqlmap) throws SqlUpdateFailureException;
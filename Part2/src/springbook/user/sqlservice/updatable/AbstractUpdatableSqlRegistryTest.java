@@ -60,6 +60,19 @@ public abstract class AbstractUpdatableSqlRegistryTest {
 		checkFind("Modified1", "SQL2", "Modified3");
 	}
 	
+	@Test
+	public void registerMulti() {
+		Map<String, String> sqlmap = new HashMap<String, String>();
+		sqlmap.put("KEY4", "SQL4");
+		sqlmap.put("KEY5", "SQL5");
+		
+		sqlRegistry.registerSql(sqlmap);
+		
+		checkFind("SQL1", "SQL2", "SQL3");
+		assertThat(sqlRegistry.findSql("KEY4"), is("SQL4"));
+		assertThat(sqlRegistry.findSql("KEY5"), is("SQL5"));
+	}
+	
 	@Test(expected=SqlUpdateFailureException.class)
 	public void updateWithNotExistingKey() {
 		sqlRegistry.updateSql("SQL9999!@#$", "Modified2");
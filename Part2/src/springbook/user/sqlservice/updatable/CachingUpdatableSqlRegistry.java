@@ -0,0 +1,130 @@
+package springbook.user.sqlservice.updatable;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import springbook.user.sqlservice.SqlNotFoundException;
+import springbook.user.sqlservice.SqlUpdateFailureException;
+import springbook.user.sqlservice.UpdatableSqlRegistry;
+
+/**
+ * EmbeddedDbSqlRegistryó ȸ  ū Ʈ տ δ ޸ ĳ.
+ * ٲ Ű updateSql() Ŀ Ʈ     .
+ */
+public class CachingUpdatableSqlRegistry implements UpdatableSqlRegistry {
+	private UpdatableSqlRegistry sqlRegistry;
+
+	private final Map<String, String> cache = new ConcurrentHashMap<String, String>();
+	private final Object lock = new Object();
+	private volatile long writeVersion;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	public void setSqlRegistry(UpdatableSqlRegistry sqlRegistry) {
+		this.sqlRegistry = sqlRegistry;
+	}
+
+	public String findSql(String key) throws SqlNotFoundException {
+		//  ĿԵ   ĳÿ ø ʵ  ȸ
+		if (TransactionSynchronizationManager.hasResource(this)) {
+			return sqlRegistry.findSql(key);
+		}
+
+		String sql = cache.get(key);
+		if (sql != null) {
+			hits.incrementAndGet();
+			return sql;
+		}
+
+		misses.incrementAndGet();
+		long version = writeVersion;
+		sql = sqlRegistry.findSql(key);
+		synchronized (lock) {
+			// д   ־ٸ    Ƿ ĳ ʴ´
+			if (version == writeVersion) cache.put(key, sql);
+		}
+		return sql;
+	}
+
+	public void registerSql(String key, String sql) {
+		sqlRegistry.registerSql(key, sql);
+		invalidate(Collections.singleton(key));
+	}
+
+	public void registerSql(Map<String, String> sqlmap) {
+		sqlRegistry.registerSql(sqlmap);
+		invalidate(new HashSet<String>(sqlmap.keySet()));
+	}
+
+	public void updateSql(String key, String sql) throws SqlUpdateFailureException {
+		try {
+			sqlRegistry.updateSql(key, sql);
+		}
+		finally {
+			invalidate(Collections.singleton(key));
+		}
+	}
+
+	public void updateSql(Map<String, String> sqlmap) throws SqlUpdateFailureException {
+		try {
+			sqlRegistry.updateSql(sqlmap);
+		}
+		finally {
+			invalidate(new HashSet<String>(sqlmap.keySet()));
+		}
+	}
+
+	private void invalidate(Set<String> keys) {
+		evict(keys);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			updatedKeys().keys.addAll(keys);
+		}
+	}
+
+	private UpdatedKeys updatedKeys() {
+		UpdatedKeys updatedKeys = (UpdatedKeys) TransactionSynchronizationManager.getResource(this);
+		if (updatedKeys == null) {
+			updatedKeys = new UpdatedKeys();
+			TransactionSynchronizationManager.bindResource(this, updatedKeys);
+			TransactionSynchronizationManager.registerSynchronization(updatedKeys);
+		}
+		return updatedKeys;
+	}
+
+	private void evict(Set<String> keys) {
+		synchronized (lock) {
+			for (String key : keys) cache.remove(key);
+			writeVersion++;
+		}
+	}
+
+	public int getSize() { return cache.size(); }
+	public long getHitCount() { return hits.get(); }
+	public long getMissCount() { return misses.get(); }
+
+	// Ŀ  ٸ 尡   ٽ ÷  ִ
+	private class UpdatedKeys extends TransactionSynchronizationAdapter {
+		private final Set<String> keys = new HashSet<String>();
+
+		public void suspend() {
+			TransactionSynchronizationManager.unbindResourceIfPossible(CachingUpdatableSqlRegistry.this);
+		}
+
+		public void resume() {
+			TransactionSynchronizationManager.bindResource(CachingUpdatableSqlRegistry.this, this);
+		}
+
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(CachingUpdatableSqlRegistry.this);
+			evict(keys);
+		}
+	}
+}
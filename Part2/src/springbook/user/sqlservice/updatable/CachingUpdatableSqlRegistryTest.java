@@ -0,0 +1,65 @@
+package springbook.user.sqlservice.updatable;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType.HSQL;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import springbook.user.sqlservice.UpdatableSqlRegistry;
+
+public class CachingUpdatableSqlRegistryTest extends AbstractUpdatableSqlRegistryTest {
+	EmbeddedDatabase db;
+	CachingUpdatableSqlRegistry cachingSqlRegistry;
+	
+	@Override
+	protected UpdatableSqlRegistry createUpdatableSqlRegistry() {
+		db = new EmbeddedDatabaseBuilder()
+			.setType(HSQL)
+			.addScript("classpath:springbook/user/sqlservice/updatable/sqlRegistrySchema.sql")
+			.build();
+		
+		EmbeddedDbSqlRegistry embeddedDbSqlRegistry = new EmbeddedDbSqlRegistry();
+		embeddedDbSqlRegistry.setDataSource(db);
+		
+		cachingSqlRegistry = new CachingUpdatableSqlRegistry();
+		cachingSqlRegistry.setSqlRegistry(embeddedDbSqlRegistry);
+		return cachingSqlRegistry;
+	}
+	
+	@After
+	public void tearDown() {
+		db.shutdown();
+	}
+	
+	@Test
+	public void cached() {
+		checkFind("SQL1", "SQL2", "SQL3");
+		checkFind("SQL1", "SQL2", "SQL3");
+		
+		assertThat(cachingSqlRegistry.getMissCount(), is(3L));
+		assertThat(cachingSqlRegistry.getHitCount(), is(3L));
+	}
+	
+	@Test
+	public void visibleAfterCommit() {
+		checkFind("SQL1", "SQL2", "SQL3");
+		
+		new TransactionTemplate(new DataSourceTransactionManager(db)).execute(new TransactionCallbackWithoutResult() {
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				sqlRegistry.updateSql("KEY2", "Modified2");
+				assertThat(sqlRegistry.findSql("KEY2"), is("Modified2"));
+				assertThat(cachingSqlRegistry.getSize(), is(2));
+			}
+		});
+		
+		checkFind("SQL1", "Modified2", "SQL3");
+	}
+}
@@ -18,6 +18,8 @@ public class ConcurrentHashMapSqlRegistry implements UpdatableSqlRegistry {
 
 	public void registerSql(String key, String sql) { sqlMap.put(key, sql);	}
 
+	public void registerSql(Map<String, String> sqlmap) { sqlMap.putAll(sqlmap); }
+
 	public void updateSql(String key, String sql) throws SqlUpdateFailureException {
 		if (sqlMap.get(key) == null) {
 			throw new SqlUpdateFailureException(key + " شϴ SQL ã  ϴ");
@@ -30,6 +30,16 @@ public class EmbeddedDbSqlRegistry implements UpdatableSqlRegistry {
 		jdbc.update("insert into sqlmap(key_, sql_) values(?,?)", key, sql);
 	}
 
+	public void registerSql(final Map<String, String> sqlmap) {
+		transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				for(Map.Entry<String, String> entry : sqlmap.entrySet()) {
+					registerSql(entry.getKey(), entry.getValue());
+				}
+			}
+		});
+	}
+
 	public String findSql(String key) throws SqlNotFoundException {
 		try {
 			return jdbc.queryForObject("select sql_ from sqlmap where key_ = ?", String.class, key);
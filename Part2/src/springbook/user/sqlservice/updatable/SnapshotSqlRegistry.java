@@ -0,0 +1,93 @@
+package springbook.user.sqlservice.updatable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import springbook.user.sqlservice.SqlNotFoundException;
+import springbook.user.sqlservice.SqlReader;
+import springbook.user.sqlservice.SqlRegistry;
+import springbook.user.sqlservice.SqlUpdateFailureException;
+import springbook.user.sqlservice.UpdatableSqlRegistry;
+
+/**
+ *    ü    ٲ .
+ * ȸ     Ƿ  Ű   ٲ㵵 ߰ °  ʴ´.
+ */
+public class SnapshotSqlRegistry implements UpdatableSqlRegistry {
+	private final AtomicReference<Snapshot> snapshot = new AtomicReference<Snapshot>(new Snapshot(new HashMap<String, String>(), 0));
+
+	public String findSql(String key) throws SqlNotFoundException {
+		String sql = snapshot.get().sqlMap.get(key);
+		if (sql == null)  throw new SqlNotFoundException(key + " ̿ؼ SQL ã  ϴ");
+		else return sql;
+	}
+
+	public void registerSql(String key, String sql) {
+		Map<String, String> sqlmap = new HashMap<String, String>();
+		sqlmap.put(key, sql);
+		apply(sqlmap, false);
+	}
+
+	// Ű registerSql(key, sql) θ ׶  ü ϹǷ Ѳ    
+	public void registerSql(Map<String, String> sqlmap) {
+		apply(sqlmap, false);
+	}
+
+	// SqlReader  SQL  ξٰ  ϳ Ѵ
+	public void load(SqlReader sqlReader) {
+		final Map<String, String> sqlmap = new HashMap<String, String>();
+		sqlReader.read(new SqlRegistry() {
+			public void registerSql(String key, String sql) {
+				sqlmap.put(key, sql);
+			}
+
+			public String findSql(String key) throws SqlNotFoundException {
+				String sql = sqlmap.get(key);
+				if (sql == null) throw new SqlNotFoundException(key + " ̿ؼ SQL ã  ϴ");
+				else return sql;
+			}
+		});
+		registerSql(sqlmap);
+	}
+
+	public void updateSql(String key, String sql) throws SqlUpdateFailureException {
+		Map<String, String> sqlmap = new HashMap<String, String>();
+		sqlmap.put(key, sql);
+		apply(sqlmap, true);
+	}
+
+	public void updateSql(Map<String, String> sqlmap) throws SqlUpdateFailureException {
+		apply(sqlmap, true);
+	}
+
+	public long getVersion() {
+		return snapshot.get().version;
+	}
+
+	private void apply(Map<String, String> changes, boolean existingKeysOnly) {
+		while (true) {
+			Snapshot current = snapshot.get();
+			if (existingKeysOnly) {
+				for (String key : changes.keySet()) {
+					if (!current.sqlMap.containsKey(key)) {
+						throw new SqlUpdateFailureException(key + " شϴ SQL ã  ϴ");
+					}
+				}
+			}
+			Map<String, String> sqlMap = new HashMap<String, String>(current.sqlMap);
+			sqlMap.putAll(changes);
+			if (snapshot.compareAndSet(current, new Snapshot(sqlMap, current.version + 1))) return;
+		}
+	}
+
+	private static class Snapshot {
+		final Map<String, String> sqlMap;
+		final long version;
+
+		Snapshot(Map<String, String> sqlMap, long version) {
+			this.sqlMap = sqlMap;
+			this.version = version;
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package springbook.user.sqlservice.updatable;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import springbook.user.sqlservice.SqlReader;
+import springbook.user.sqlservice.SqlRegistry;
+import springbook.user.sqlservice.SqlUpdateFailureException;
+import springbook.user.sqlservice.UpdatableSqlRegistry;
+
+public class SnapshotSqlRegistryTest extends AbstractUpdatableSqlRegistryTest {
+	protected UpdatableSqlRegistry createUpdatableSqlRegistry() {
+		return new SnapshotSqlRegistry();
+	}
+
+	@Test
+	public void atomicUpdate() {
+		long version = ((SnapshotSqlRegistry) sqlRegistry).getVersion();
+		
+		Map<String, String> sqlmap = new HashMap<String, String>();
+		sqlmap.put("KEY1", "Modified1");
+		sqlmap.put("KEY9999!@#$", "Modified9999");
+		
+		try {
+			sqlRegistry.updateSql(sqlmap);
+			fail();
+		}
+		catch(SqlUpdateFailureException e) {}
+		
+		checkFind("SQL1", "SQL2", "SQL3");
+		assertThat(((SnapshotSqlRegistry) sqlRegistry).getVersion(), is(version));
+	}
+	
+	@Test
+	public void versionChangesOnUpdate() {
+		long version = ((SnapshotSqlRegistry) sqlRegistry).getVersion();
+		
+		Map<String, String> sqlmap = new HashMap<String, String>();
+		sqlmap.put("KEY1", "Modified1");
+		sqlmap.put("KEY3", "Modified3");
+		sqlRegistry.updateSql(sqlmap);
+		
+		assertThat(((SnapshotSqlRegistry) sqlRegistry).getVersion(), is(version + 1));
+	}
+	
+	@Test
+	public void loadInOneSnapshot() {
+		SnapshotSqlRegistry snapshotSqlRegistry = new SnapshotSqlRegistry();
+		snapshotSqlRegistry.load(new SqlReader() {
+			public void read(SqlRegistry sqlRegistry) {
+				sqlRegistry.registerSql("KEY1", "SQL1");
+				sqlRegistry.registerSql("KEY2", "SQL2");
+				sqlRegistry.registerSql("KEY3", "SQL3");
+			}
+		});
+		
+		sqlRegistry = snapshotSqlRegistry;
+		checkFind("SQL1", "SQL2", "SQL3");
+		assertThat(snapshotSqlRegistry.getVersion(), is(1L));
+	}
+}
@@ -1,4 +1,4 @@
 CREATE TABLE SQLMAP (
 	KEY_ VARCHAR(100) PRIMARY KEY,
-	SQL_ VARCHAR(100) NOT NULL
+	SQL_ VARCHAR(1000) NOT NULL
 );
\ No newline at end of file
@@ -0,0 +1,102 @@
+package me.dec7.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import me.dec7.learningtest.template.Calculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * LineCallback5(boxing, String +) IntLineCallback/LongLineCallback/StringBuilder  .
+ *  δ ̹Ƿ -prof gc  gc.alloc.rate.norm  δ Ҵ Ʈ ȴ.
+ *
+ * java -jar target/benchmarks.jar -prof gc CalculatorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(CalculatorBenchmark.LINES)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CalculatorBenchmark {
+	// String +    ̹Ƿ ʹ ũ  ʴ´
+	static final int LINES = 10000;
+
+	File file;
+	String filepath;
+	Calculator calculator = new Calculator();
+
+	// Integer ĳ(-128~127) ɸ ʵ ū  
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		file = File.createTempFile("calculatorBenchmark", ".txt");
+		Random random = new Random(UserFixture.SEED);
+		PrintWriter writer = new PrintWriter(file, "US-ASCII");
+		try {
+			for (int i = 0; i < LINES; i++) {
+				writer.print(1000 + random.nextInt(90000));
+				writer.print('\n');
+			}
+		} finally {
+			writer.close();
+		}
+		filepath = file.getPath();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Benchmark
+	public Integer boxedSum() throws IOException {
+		return calculator.calcSum5(filepath);
+	}
+
+	@Benchmark
+	public int intSum() throws IOException {
+		return calculator.calcSum6(filepath);
+	}
+
+	@Benchmark
+	public long longSum() throws IOException {
+		return calculator.calcLongSum6(filepath);
+	}
+
+	@Benchmark
+	public Integer boxedMultiply() throws IOException {
+		return calculator.calcMultiply5(filepath);
+	}
+
+	@Benchmark
+	public int intMultiply() throws IOException {
+		return calculator.calcMultiply6(filepath);
+	}
+
+	@Benchmark
+	public String stringConcatenate() throws IOException {
+		return calculator.concatenate5(filepath);
+	}
+
+	@Benchmark
+	public String builderConcatenate() throws IOException {
+		return calculator.concatenate6(filepath);
+	}
+}
@@ -0,0 +1,143 @@
+package me.dec7.benchmark;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.MethodInterceptor;
+import net.sf.cglib.proxy.MethodProxy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import springbook.sug.dao.GenericDao;
+import springbook.sug.domain.Group;
+import springbook.sug.support.BatchEntityLoader;
+import springbook.sug.support.CglibEntityProxyFactory;
+import springbook.sug.support.EntityProxyFactory;
+
+/**
+ * springusergroup Group Ͻ /ȣ .
+ * perProxyEnhancer Enhancer MethodInterceptor Ͻø   CglibEntityProxyFactory,
+ * cachedClass Ͻ Ŭ ƼƼ Ŭ     CglibEntityProxyFactory.
+ *
+ * java -jar target/benchmarks.jar -prof gc EntityProxyBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EntityProxyBenchmark {
+	EntityProxyFactory perProxyEnhancer = new PerProxyEnhancerEntityProxyFactory();
+	EntityProxyFactory cachedClass = new CglibEntityProxyFactory();
+	GenericDao<Group> groupDao = new GroupDaoStub();
+	int id;
+
+	Group perProxyEnhancerGroup;
+	Group cachedClassGroup;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		perProxyEnhancerGroup = perProxyEnhancer.createProxy(Group.class, groupDao, 1);
+		perProxyEnhancerGroup.getName();
+		cachedClassGroup = cachedClass.createProxy(Group.class, groupDao, 1);
+		cachedClassGroup.getName();
+	}
+
+	@Benchmark
+	public Group createPerProxyEnhancer() {
+		return perProxyEnhancer.createProxy(Group.class, groupDao, ++id);
+	}
+
+	@Benchmark
+	public Group createCachedClass() {
+		return cachedClass.createProxy(Group.class, groupDao, ++id);
+	}
+
+	@Benchmark
+	public int getIdPerProxyEnhancer() {
+		return perProxyEnhancerGroup.getId();
+	}
+
+	@Benchmark
+	public int getIdCachedClass() {
+		return cachedClassGroup.getId();
+	}
+
+	@Benchmark
+	public String getNamePerProxyEnhancer() {
+		return perProxyEnhancerGroup.getName();
+	}
+
+	@Benchmark
+	public String getNameCachedClass() {
+		return cachedClassGroup.getName();
+	}
+
+	//  CglibEntityProxyFactory ״
+	static class PerProxyEnhancerEntityProxyFactory implements EntityProxyFactory {
+		@SuppressWarnings("unchecked")
+		public <T> T createProxy(Class<T> clazz, final GenericDao<T> dao, final int id) {
+			Enhancer e = new Enhancer();
+			e.setSuperclass(clazz);
+			e.setCallback(new MethodInterceptor() {
+				private T entity;
+				public Object intercept(Object obj, Method method, Object[] args,
+						MethodProxy proxy) throws Throwable {
+					if (method.getName().equals("getId")) {
+						return id;
+					}
+					else {
+						if (entity == null) {
+							entity = dao.get(id);
+						}
+						return proxy.invoke(entity, args);
+					}
+				}
+			});
+
+			return (T)e.create();
+		}
+
+		public <T> T createProxy(Class<T> clazz, BatchEntityLoader<T> loader, int id) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	static class GroupDaoStub implements GenericDao<Group> {
+		public Group get(int id) {
+			return new Group(id, "group" + id);
+		}
+
+		public Map<Integer, Group> get(Collection<Integer> ids) {
+			Map<Integer, Group> groups = new HashMap<Integer, Group>();
+			for (Integer id : ids) groups.put(id, get(id));
+			return groups;
+		}
+
+		public Group add(Group entity) { throw new UnsupportedOperationException(); }
+		public Group update(Group entity) { throw new UnsupportedOperationException(); }
+		public void delete(int id) { throw new UnsupportedOperationException(); }
+		public List<Group> search(String name) { throw new UnsupportedOperationException(); }
+		public List<Group> searchAfter(String name, int lastId, int limit) { throw new UnsupportedOperationException(); }
+		public int deleteAll() { throw new UnsupportedOperationException(); }
+		public List<Group> getAll() { throw new UnsupportedOperationException(); }
+		public List<Group> getAllAfter(int lastId, int limit) { throw new UnsupportedOperationException(); }
+		public long count() { throw new UnsupportedOperationException(); }
+	}
+}
@@ -0,0 +1,103 @@
+package me.dec7.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import springbook.user.sqlservice.HashMapSqlRegistry;
+import springbook.user.sqlservice.JaxbXmlSqlReader;
+import springbook.user.sqlservice.SqlRegistry;
+import springbook.user.sqlservice.updatable.CachingUpdatableSqlRegistry;
+import springbook.user.sqlservice.updatable.ConcurrentHashMapSqlRegistry;
+import springbook.user.sqlservice.updatable.EmbeddedDbSqlRegistry;
+import springbook.user.sqlservice.updatable.SnapshotSqlRegistry;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqlRegistryBenchmark {
+	@Param({ "hashMap", "concurrentHashMap", "snapshot", "embeddedDb", "cachingEmbeddedDb" })
+	String registry;
+
+	// sqlmap.xml SQL ܿ ä  Ű 
+	@Param({ "1000" })
+	int extraKeys;
+
+	EmbeddedDatabase database;
+	SqlRegistry sqlRegistry;
+	String[] keys;
+	int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		if ("hashMap".equals(registry)) {
+			sqlRegistry = new HashMapSqlRegistry();
+		}
+		else if ("concurrentHashMap".equals(registry)) {
+			sqlRegistry = new ConcurrentHashMapSqlRegistry();
+		}
+		else if ("snapshot".equals(registry)) {
+			sqlRegistry = new SnapshotSqlRegistry();
+		}
+		else if ("embeddedDb".equals(registry)) {
+			sqlRegistry = createEmbeddedDbSqlRegistry();
+		}
+		else if ("cachingEmbeddedDb".equals(registry)) {
+			CachingUpdatableSqlRegistry cachingSqlRegistry = new CachingUpdatableSqlRegistry();
+			cachingSqlRegistry.setSqlRegistry(createEmbeddedDbSqlRegistry());
+			sqlRegistry = cachingSqlRegistry;
+		}
+		else {
+			throw new IllegalArgumentException("   SqlRegistryԴϴ: " + registry);
+		}
+
+		new JaxbXmlSqlReader().read(sqlRegistry);
+		for (int i = 0; i < extraKeys; i++) {
+			sqlRegistry.registerSql("extra" + i, "select * from extra where id = " + i);
+		}
+
+		//   ̴ user  Ű ư ã´
+		keys = new String[] { "userGet", "userGetAll", "userUpdate", "userAdd", "userGetCount", "userDeleteAll" };
+	}
+
+	private EmbeddedDbSqlRegistry createEmbeddedDbSqlRegistry() {
+		database = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.setName("sqlRegistryBenchmark")
+				.addScript("classpath:springbook/user/sqlservice/updatable/sqlRegistrySchema.sql")
+				.build();
+		EmbeddedDbSqlRegistry embeddedDbSqlRegistry = new EmbeddedDbSqlRegistry();
+		embeddedDbSqlRegistry.setDataSource(database);
+		return embeddedDbSqlRegistry;
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		if (database != null) database.shutdown();
+	}
+
+	@Benchmark
+	public String findSql() {
+		String key = keys[next];
+		next = (next + 1) % keys.length;
+		return sqlRegistry.findSql(key);
+	}
+}
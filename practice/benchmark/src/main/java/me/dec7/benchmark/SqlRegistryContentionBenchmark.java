@@ -0,0 +1,99 @@
+package me.dec7.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import springbook.user.sqlservice.JaxbXmlSqlReader;
+import springbook.user.sqlservice.UpdatableSqlRegistry;
+import springbook.user.sqlservice.updatable.ConcurrentHashMapSqlRegistry;
+import springbook.user.sqlservice.updatable.SnapshotSqlRegistry;
+
+/**
+ * 32 ȸ  sqlmap Ϻθ Ѳ ٲٴ 1  带 Բ .
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqlRegistryContentionBenchmark {
+	@Param({ "concurrentHashMap", "snapshot" })
+	String registry;
+
+	@Param({ "1000" })
+	int extraKeys;
+
+	UpdatableSqlRegistry sqlRegistry;
+	String[] keys;
+	Map<String, String>[] updates;
+
+	@SuppressWarnings("unchecked")
+	@Setup(Level.Trial)
+	public void setUp() {
+		if ("concurrentHashMap".equals(registry)) {
+			sqlRegistry = new ConcurrentHashMapSqlRegistry();
+		}
+		else if ("snapshot".equals(registry)) {
+			sqlRegistry = new SnapshotSqlRegistry();
+		}
+		else {
+			throw new IllegalArgumentException("   SqlRegistryԴϴ: " + registry);
+		}
+
+		new JaxbXmlSqlReader().read(sqlRegistry);
+		Map<String, String> extra = new HashMap<String, String>();
+		for (int i = 0; i < extraKeys; i++) {
+			extra.put("extra" + i, "select * from extra where id = " + i);
+		}
+		sqlRegistry.registerSql(extra);
+		keys = new String[] { "userGet", "userGetAll", "userUpdate", "userAdd", "userGetCount", "userDeleteAll" };
+
+		//     sqlmap  Ѵ
+		updates = new Map[2];
+		for (int i = 0; i < updates.length; i++) {
+			updates[i] = new HashMap<String, String>();
+			for (String key : keys) {
+				updates[i].put(key, sqlRegistry.findSql(key) + " /* " + i + " */");
+			}
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Cursor {
+		int next;
+	}
+
+	@Benchmark
+	@Group("readWrite")
+	@GroupThreads(32)
+	public String findSql(Cursor cursor) {
+		String key = keys[cursor.next];
+		cursor.next = (cursor.next + 1) % keys.length;
+		return sqlRegistry.findSql(key);
+	}
+
+	@Benchmark
+	@Group("readWrite")
+	@GroupThreads(1)
+	public void updateSql(Cursor cursor) {
+		sqlRegistry.updateSql(updates[cursor.next]);
+		cursor.next = (cursor.next + 1) % updates.length;
+	}
+}
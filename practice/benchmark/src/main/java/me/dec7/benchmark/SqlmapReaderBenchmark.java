@@ -0,0 +1,132 @@
+package me.dec7.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.oxm.jaxb.Jaxb2Marshaller;
+
+import springbook.user.sqlservice.BinarySqlmapReader;
+import springbook.user.sqlservice.HashMapSqlRegistry;
+import springbook.user.sqlservice.OxmSqlService;
+import springbook.user.sqlservice.SqlRegistry;
+import springbook.user.sqlservice.StaxXmlSqlReader;
+import springbook.user.sqlservice.jaxb.SqlType;
+import springbook.user.sqlservice.jaxb.Sqlmap;
+
+/**
+ *  JVM sqlmap ó д  ɸ ð(ũ  ) .
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class SqlmapReaderBenchmark {
+	@Param({ "100", "5000" })
+	int sqls;
+
+	File sqlmapFile;
+	File compiledSqlmapFile;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		sqlmapFile = File.createTempFile("sqlmap", ".xml");
+		Writer writer = new OutputStreamWriter(new FileOutputStream(sqlmapFile), "UTF-8");
+		try {
+			writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+			writer.write("<sqlmap xmlns=\"http://www.epril.com/sqlmap\">\n");
+			for (int i = 0; i < sqls; i++) {
+				writer.write("\t<sql key=\"module" + (i / 100) + ".sql" + i + "\">select * from table" + i
+						+ " where id = ? and level &lt; ? order by id</sql>\n");
+			}
+			writer.write("</sqlmap>\n");
+		} finally {
+			writer.close();
+		}
+
+		compiledSqlmapFile = File.createTempFile("sqlmap", ".sqlbin");
+		BinarySqlmapReader.compile(new FileSystemResource(sqlmapFile), compiledSqlmapFile);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		sqlmapFile.delete();
+		compiledSqlmapFile.delete();
+	}
+
+	// JaxbXmlSqlReader UserDao  Ŭн ҽ   ־   ״ Ű
+	@Benchmark
+	public SqlRegistry jaxb() throws JAXBException, IOException {
+		SqlRegistry sqlRegistry = new HashMapSqlRegistry();
+		JAXBContext context = JAXBContext.newInstance(Sqlmap.class.getPackage().getName());
+		Unmarshaller unmarshaller = context.createUnmarshaller();
+		InputStream is = new FileSystemResource(sqlmapFile).getInputStream();
+		try {
+			Sqlmap sqlmap = (Sqlmap) unmarshaller.unmarshal(is);
+			for (SqlType sql : sqlmap.getSql()) {
+				sqlRegistry.registerSql(sql.getKey(), sql.getValue());
+			}
+		} finally {
+			is.close();
+		}
+		return sqlRegistry;
+	}
+
+	@Benchmark
+	public OxmSqlService oxm() throws Exception {
+		Jaxb2Marshaller unmarshaller = new Jaxb2Marshaller();
+		unmarshaller.setContextPath(Sqlmap.class.getPackage().getName());
+		unmarshaller.afterPropertiesSet();
+
+		OxmSqlService sqlService = new OxmSqlService();
+		sqlService.setUnmarshaller(unmarshaller);
+		sqlService.setSqlmap(new FileSystemResource(sqlmapFile));
+		sqlService.setSqlRegistry(new HashMapSqlRegistry());
+		sqlService.loadSql();
+		return sqlService;
+	}
+
+	@Benchmark
+	public SqlRegistry stax() {
+		SqlRegistry sqlRegistry = new HashMapSqlRegistry();
+		StaxXmlSqlReader sqlReader = new StaxXmlSqlReader();
+		sqlReader.setSqlmap(new FileSystemResource(sqlmapFile));
+		sqlReader.read(sqlRegistry);
+		return sqlRegistry;
+	}
+
+	@Benchmark
+	public SqlRegistry binary() {
+		SqlRegistry sqlRegistry = new HashMapSqlRegistry();
+		BinarySqlmapReader sqlReader = new BinarySqlmapReader();
+		sqlReader.setSqlmap(new FileSystemResource(sqlmapFile));
+		sqlReader.setCompiledSqlmap(new FileSystemResource(compiledSqlmapFile));
+		sqlReader.read(sqlRegistry);
+		if (!sqlReader.isCompiledUsed()) throw new IllegalStateException("̳ʸ sqlmap  ߽ϴ");
+		return sqlRegistry;
+	}
+}
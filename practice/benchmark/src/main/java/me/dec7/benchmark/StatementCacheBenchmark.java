@@ -0,0 +1,80 @@
+package me.dec7.benchmark;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+
+import me.dec7.user.dao.ConnectionMaker;
+import me.dec7.user.dao.PooledDataSource;
+import springbook.user.dao.PreparedStatementCachingDataSource;
+import springbook.user.dao.UserDaoJdbc;
+import springbook.user.domain.User;
+
+/**
+ * Ŀؼ Ǯ(PooledDataSource)  Ʈ  UserDaoJdbc.get() ݺѴ.
+ * ȣ⸶ Ǯ Ŀؼ  ش. cached̸ PreparedStatementCachingDataSource Ǯ Ʒ д.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatementCacheBenchmark {
+	@Param({ "false", "true" })
+	boolean cached;
+
+	@Param({ "10000" })
+	int users;
+
+	EmbeddedDatabase database;
+	PooledDataSource pool;
+	UserDaoJdbc userDao;
+	Random random;
+
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException {
+		database = UserFixture.createDatabase("statementCacheBenchmark");
+		UserFixture.insertUsers(database, UserFixture.createUsers(users));
+
+		final DataSource dataSource = cached ? new PreparedStatementCachingDataSource(database) : database;
+		pool = new PooledDataSource();
+		pool.setConnectionMaker(new ConnectionMaker() {
+			public Connection makeConnection() throws SQLException {
+				return dataSource.getConnection();
+			}
+		});
+		pool.init();
+		userDao = UserFixture.createUserDao(pool);
+		random = new Random(UserFixture.SEED);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		pool.close();
+		database.shutdown();
+	}
+
+	@Benchmark
+	public User get() {
+		return userDao.get(UserFixture.idOf(random.nextInt(users)));
+	}
+}
@@ -0,0 +1,200 @@
+package me.dec7.benchmark;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import springbook.sug.dao.GenericDao;
+import springbook.sug.dao.IndexedSearchAccess;
+import springbook.sug.support.TrigramIndex;
+
+/**
+ * springusergroup ̸ ˻ .  1M,  (50) ȸ.
+ * like  UserDaoJdbc.searchAfter() name like '%x%' (ε  Ÿ ̺ ü ),
+ * trigramIndex  UserDaoJdbc.searchAfter()  η, TrigramIndex  ĺ id
+ * IndexedSearch.fetch()  ̺ DAO id in (...) ´.
+ * selective ̸ ޺κ(ȣ )̶   ɸ ˻, common   ɸ  ϳ.
+ *
+ * java -jar target/benchmarks.jar TrigramSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TrigramSearchBenchmark {
+	private static final String[] SYLLABLES = {
+		"kim", "lee", "park", "choi", "jung", "kang", "cho", "yoon", "jang", "lim",
+		"min", "jun", "seo", "hyun", "ji", "woo", "soo", "young", "hee", "sung",
+		"ho", "eun", "jin", "hye", "dong", "won", "tae", "ha", "yeon", "bin"
+	};
+	private static final int QUERIES = 1024;
+	private static final int PAGE_SIZE = 50;
+
+	@Param({ "1000000" })
+	int users;
+
+	@Param({ "selective", "common" })
+	String query;
+
+	EmbeddedDatabase database;
+	JdbcTemplate jdbcTemplate;
+	NamedParameterJdbcTemplate namedJdbcTemplate;
+	TrigramIndex nameIndex;
+	UserNameDao userNameDao;
+	String[] queries;
+	int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		database = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.setName("trigramSearchBenchmark")
+				.build();
+		jdbcTemplate = new JdbcTemplate(database);
+		namedJdbcTemplate = new NamedParameterJdbcTemplate(database);
+		jdbcTemplate.execute("create table users (id int auto_increment primary key, name varchar(50) not null, " +
+				"username varchar(50) not null, logins int not null)");
+
+		final String[] names = createNames(users, new Random(UserFixture.SEED));
+		for (int from = 0; from < users; from += 10000) {
+			final int offset = from;
+			final int count = Math.min(10000, users - from);
+			jdbcTemplate.batchUpdate("insert into users(name, username, logins) values(?, ?, ?)",
+					new BatchPreparedStatementSetter() {
+				public void setValues(PreparedStatement ps, int i) throws SQLException {
+					ps.setString(1, names[offset + i]);
+					ps.setString(2, "user" + (offset + i));
+					ps.setInt(3, i);
+				}
+
+				public int getBatchSize() {
+					return count;
+				}
+			});
+		}
+
+		// UserDaoJdbc.rebuildNameIndex()  
+		nameIndex = new TrigramIndex();
+		jdbcTemplate.query("select id, name from users", new RowCallbackHandler() {
+			public void processRow(ResultSet rs) throws SQLException {
+				nameIndex.put(rs.getInt("id"), rs.getString("name"));
+			}
+		});
+
+		userNameDao = new UserNameDao();
+
+		Random random = new Random(UserFixture.SEED + 1);
+		queries = new String[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			if (query.equals("common")) {
+				queries[i] = SYLLABLES[random.nextInt(SYLLABLES.length)];
+			}
+			else {
+				String name = names[random.nextInt(users)];
+				int start = random.nextInt(name.length() - 5);
+				queries[i] = name.substring(start);
+			}
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		database.shutdown();
+	}
+
+	@Benchmark
+	public List<String> like() {
+		return jdbcTemplate.query("select * from users where name like ? order by id desc limit ?",
+				NAME_MAPPER, "%" + nextQuery() + "%", PAGE_SIZE);
+	}
+
+	@Benchmark
+	public List<String> trigramIndex() {
+		return userNameDao.searchAfter(nextQuery(), GenericDao.FIRST_PAGE, PAGE_SIZE);
+	}
+
+	private String nextQuery() {
+		return queries[next++ & (QUERIES - 1)];
+	}
+
+	private static final RowMapper<String> NAME_MAPPER = new RowMapper<String>() {
+		public String mapRow(ResultSet rs, int rowNum) throws SQLException {
+			return rs.getString("name");
+		}
+	};
+
+	// UserDaoJdbc ˻  κи   ϰ ƼƼ  ̸ 
+	class UserNameDao implements GenericDao<String> {
+		public List<String> searchAfter(String name, int lastId, int limit) {
+			return IndexedSearchAccess.fetch(this, nameIndex.search(name), lastId, limit);
+		}
+
+		public List<String> search(String name) {
+			return searchAfter(name, FIRST_PAGE, Integer.MAX_VALUE);
+		}
+
+		public Map<Integer, String> get(Collection<Integer> ids) {
+			final Map<Integer, String> names = new HashMap<Integer, String>();
+			if (ids.isEmpty()) return names;
+
+			namedJdbcTemplate.query("select * from users where id in (:ids)",
+					new MapSqlParameterSource("ids", ids), new RowCallbackHandler() {
+				public void processRow(ResultSet rs) throws SQLException {
+					names.put(rs.getInt("id"), rs.getString("name"));
+				}
+			});
+			return names;
+		}
+
+		public String add(String entity) { throw new UnsupportedOperationException(); }
+		public String update(String entity) { throw new UnsupportedOperationException(); }
+		public void delete(int id) { throw new UnsupportedOperationException(); }
+		public String get(int id) { throw new UnsupportedOperationException(); }
+		public int deleteAll() { throw new UnsupportedOperationException(); }
+		public List<String> getAll() { throw new UnsupportedOperationException(); }
+		public List<String> getAllAfter(int lastId, int limit) { throw new UnsupportedOperationException(); }
+		public long count() { throw new UnsupportedOperationException(); }
+	}
+
+	//  ϳ + ̸  , ġ ̸ ȣ 
+	private static String[] createNames(int count, Random random) {
+		String[] names = new String[count];
+		for (int i = 0; i < count; i++) {
+			names[i] = SYLLABLES[random.nextInt(10)] + " "
+					+ SYLLABLES[10 + random.nextInt(20)] + SYLLABLES[10 + random.nextInt(20)]
+					+ (i % 1000);
+		}
+		return names;
+	}
+}
@@ -0,0 +1,74 @@
+package me.dec7.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+
+import springbook.user.domain.User;
+import springbook.user.service.DummyMailSender;
+import springbook.user.service.LevelUpgradeResult;
+import springbook.user.service.UserServiceImpl;
+
+/**
+ * upgradeLevels() ͸ ٲٹǷ    (SingleShotTime) ̺ ٽ ä.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class UpgradeLevelsBenchmark {
+	@Param({ "10000", "100000", "1000000" })
+	int users;
+
+	EmbeddedDatabase database;
+	UserServiceImpl userService;
+	List<User> fixture;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		database = UserFixture.createDatabase("upgradeLevelsBenchmark");
+		fixture = UserFixture.createUsers(users);
+
+		userService = new UserServiceImpl();
+		userService.setUserDao(UserFixture.createUserDao(database));
+		userService.setMailSender(new DummyMailSender());
+		userService.setTransactionManager(new DataSourceTransactionManager(database));
+	}
+
+	@Setup(Level.Iteration)
+	public void resetUsers() {
+		UserFixture.insertUsers(database, fixture);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		database.shutdown();
+	}
+
+	@Benchmark
+	public void upgradeLevels() {
+		userService.upgradeLevels();
+	}
+
+	@Benchmark
+	public LevelUpgradeResult upgradeLevelsInChunks() {
+		return userService.upgradeLevelsInChunks(null);
+	}
+}
@@ -0,0 +1,86 @@
+package me.dec7.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+
+import springbook.user.dao.UserDaoJdbc;
+import springbook.user.domain.User;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserDaoBenchmark {
+	@Param({ "10000" })
+	int users;
+
+	EmbeddedDatabase database;
+	UserDaoJdbc userDao;
+	List<User> fixture;
+	Random random;
+	int added;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		database = UserFixture.createDatabase("userDaoBenchmark");
+		userDao = UserFixture.createUserDao(database);
+		fixture = UserFixture.createUsers(users);
+		UserFixture.insertUsers(database, fixture);
+		random = new Random(UserFixture.SEED);
+	}
+
+	// add()  ο ݺ  ̺ ũ⸦ 
+	@TearDown(Level.Iteration)
+	public void removeAdded() {
+		new JdbcTemplate(database).update("delete from users where id like 'n%'");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		database.shutdown();
+	}
+
+	@Benchmark
+	public void add() {
+		User user = fixture.get(random.nextInt(users));
+		userDao.add(new User(String.format("n%09d", added++), user.getName(), user.getPassword(), user.getEmail(),
+				user.getLevel(), user.getLogin(), user.getRecommend()));
+	}
+
+	@Benchmark
+	public User get() {
+		return userDao.get(UserFixture.idOf(random.nextInt(users)));
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public List<User> getAll() {
+		return userDao.getAll();
+	}
+
+	@Benchmark
+	public void update() {
+		User user = fixture.get(random.nextInt(users));
+		user.setLogin(user.getLogin() + 1);
+		userDao.update(user);
+	}
+}
@@ -0,0 +1,88 @@
+package me.dec7.benchmark;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import springbook.user.dao.UserDaoJdbc;
+import springbook.user.domain.Level;
+import springbook.user.domain.User;
+import springbook.user.sqlservice.DefaultSqlService;
+
+/**
+ * ġũ H2 DB  .
+ *  seed ׻  ͸      ְ Ѵ.
+ */
+public class UserFixture {
+	public static final long SEED = 20141018L;
+	private static final int INSERT_BATCH_SIZE = 10000;
+
+	public static EmbeddedDatabase createDatabase(String name) {
+		return new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.setName(name)
+				.addScript("classpath:users-schema.sql")
+				.build();
+	}
+
+	public static UserDaoJdbc createUserDao(DataSource dataSource) {
+		DefaultSqlService sqlService = new DefaultSqlService();
+		sqlService.loadSql();
+
+		UserDaoJdbc userDao = new UserDaoJdbc();
+		userDao.setDataSource(dataSource);
+		userDao.setSqlService(sqlService);
+		return userDao;
+	}
+
+	public static String idOf(int i) {
+		return String.format("u%07d", i);
+	}
+
+	public static List<User> createUsers(int count) {
+		Random random = new Random(SEED);
+		Level[] levels = Level.values();
+		List<User> users = new ArrayList<User>(count);
+		for (int i = 0; i < count; i++) {
+			String id = idOf(i);
+			users.add(new User(id, "name" + i, "pw" + (i % 1000), id + "@ksug.org",
+					levels[random.nextInt(levels.length)], random.nextInt(100), random.nextInt(60)));
+		}
+		return users;
+	}
+
+	public static void insertUsers(DataSource dataSource, final List<User> users) {
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.update("delete from users");
+		for (int from = 0; from < users.size(); from += INSERT_BATCH_SIZE) {
+			final List<User> batch = users.subList(from, Math.min(from + INSERT_BATCH_SIZE, users.size()));
+			jdbcTemplate.batchUpdate("insert into users(id, name, password, email, level, login, recommend) values(?,?,?,?,?,?,?)",
+				new BatchPreparedStatementSetter() {
+					public void setValues(PreparedStatement ps, int i) throws SQLException {
+						User user = batch.get(i);
+						ps.setString(1, user.getId());
+						ps.setString(2, user.getName());
+						ps.setString(3, user.getPassword());
+						ps.setString(4, user.getEmail());
+						ps.setInt(5, user.getLevel().intValue());
+						ps.setInt(6, user.getLogin());
+						ps.setInt(7, user.getRecommend());
+					}
+
+					public int getBatchSize() {
+						return batch.size();
+					}
+				});
+		}
+	}
+}
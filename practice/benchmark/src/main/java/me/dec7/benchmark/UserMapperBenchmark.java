@@ -0,0 +1,80 @@
+package me.dec7.benchmark;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+
+import springbook.user.dao.UserMapper;
+import springbook.user.domain.User;
+
+/**
+ * ÷ ̸ д  userMapper ε д UserMapper 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class UserMapperBenchmark {
+	@Param({ "1000000" })
+	int rows;
+
+	EmbeddedDatabase database;
+	JdbcTemplate jdbcTemplate;
+
+	// UserDaoJdbc ִ ̸   ״
+	RowMapper<User> nameBasedMapper = new RowMapper<User>() {
+		public User mapRow(ResultSet rs, int rowNum) throws SQLException {
+			User user = new User();
+			user.setId(rs.getString("id"));
+			user.setName(rs.getString("name"));
+			user.setPassword(rs.getString("password"));
+			user.setEmail(rs.getString("email"));
+			user.setLevel(springbook.user.domain.Level.valueOf(rs.getInt("level")));
+			user.setLogin(rs.getInt("login"));
+			user.setRecommend(rs.getInt("recommend"));
+			return user;
+		}
+	};
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		database = UserFixture.createDatabase("userMapperBenchmark");
+		UserFixture.insertUsers(database, UserFixture.createUsers(rows));
+		jdbcTemplate = new JdbcTemplate(database);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		database.shutdown();
+	}
+
+	@Benchmark
+	public List<User> nameBased() {
+		return jdbcTemplate.query("select * from users order by id", nameBasedMapper);
+	}
+
+	@Benchmark
+	public List<User> indexBased() {
+		return jdbcTemplate.query("select * from users order by id", new UserMapper());
+	}
+}
@@ -0,0 +1,12 @@
+package springbook.sug.dao;
+
+import java.util.List;
+
+/**
+ * IndexedSearch package-private̹Ƿ ġũ  ڵ带 θ  ְ  ش.
+ */
+public class IndexedSearchAccess {
+	public static <T> List<T> fetch(GenericDao<T> dao, int[] candidateIds, int lastId, int limit) {
+		return IndexedSearch.fetch(dao, candidateIds, lastId, limit);
+	}
+}
@@ -3,9 +3,40 @@ package me.dec7.learningtest.template;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
 
 public class Calculator {
 	
+	public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+	
+	private ForkJoinPool forkJoinPool = ForkJoinPool.commonPool();
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+	
+	public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+		this.forkJoinPool = forkJoinPool;
+	}
+	
+	/*
+	 * 병렬 처리할 조각 하나의 대략적인 크기 (byte)
+	 * 	- 실제 조각은 라인이 끊기지 않도록 다음 줄바꿈까지 늘어남
+	 */
+	public void setChunkSize(int chunkSize) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("chunkSize는 1 이상이어야 합니다: " + chunkSize);
+		}
+		this.chunkSize = chunkSize;
+	}
+	
 	/*
 	 * p251
 	 * 초난감 Calculator 
@@ -315,5 +346,443 @@ public class Calculator {
 			
 		}, "");
 	}
+	
+	
+	/*
+	 * LineCallback5<Integer>는 라인마다 Integer.valueOf()와 누적값 boxing으로 객체를 만들고
+	 * concatenate5의 value + line은 매번 문자열 전체를 복사함 (라인 수의 제곱)
+	 * 
+	 * 해결책
+	 * 	- 누적값이 int, long인 전용 콜백과 템플릿
+	 * 	  (lineReadTemplate5의 overload로 두면 generic 버전과 모호해지므로 이름을 따로 붙임)
+	 * 	- 문자열은 StringBuilder 하나에 계속 append하고 마지막에 한 번만 String으로 변환
+	 */
+	public int intLineReadTemplate(String filepath, IntLineCallback callback, int initValue) throws IOException {
+		BufferedReader br = null;
+		
+		try {
+			br = new BufferedReader(new FileReader(filepath));
+			int res = initValue;
+			String line = null;
+			
+			while ((line = br.readLine()) != null) {
+				res = callback.doSomethingWithLine(line, res);
+			}
+			
+			return res;
+			
+		} catch (IOException ioe) {
+			System.out.println(ioe.getMessage());
+			throw ioe;
+			
+		} finally {
+			if (br != null) {
+				try {
+					br.close();
+					
+				} catch (IOException ioe) {
+					System.out.println(ioe.getMessage());
+					
+				}
+			}
+		}
+	}
+	
+	public long longLineReadTemplate(String filepath, LongLineCallback callback, long initValue) throws IOException {
+		BufferedReader br = null;
+		
+		try {
+			br = new BufferedReader(new FileReader(filepath));
+			long res = initValue;
+			String line = null;
+			
+			while ((line = br.readLine()) != null) {
+				res = callback.doSomethingWithLine(line, res);
+			}
+			
+			return res;
+			
+		} catch (IOException ioe) {
+			System.out.println(ioe.getMessage());
+			throw ioe;
+			
+		} finally {
+			if (br != null) {
+				try {
+					br.close();
+					
+				} catch (IOException ioe) {
+					System.out.println(ioe.getMessage());
+					
+				}
+			}
+		}
+	}
+	
+	public int calcSum6(String filepath) throws IOException {
+		return intLineReadTemplate(filepath, new IntLineCallback() {
+			
+			@Override
+			public int doSomethingWithLine(String line, int value) {
+				return value + Integer.parseInt(line);
+			}
+			
+		}, 0);
+	}
+	
+	public int calcMultiply6(String filepath) throws IOException {
+		return intLineReadTemplate(filepath, new IntLineCallback() {
+			
+			@Override
+			public int doSomethingWithLine(String line, int value) {
+				return value * Integer.parseInt(line);
+			}
+			
+		}, 1);
+	}
+	
+	public long calcLongSum6(String filepath) throws IOException {
+		return longLineReadTemplate(filepath, new LongLineCallback() {
+			
+			@Override
+			public long doSomethingWithLine(String line, long value) {
+				return value + Long.parseLong(line);
+			}
+			
+		}, 0L);
+	}
+	
+	/*
+	 * 누적값으로 StringBuilder를 넘기면 콜백은 같은 builder에 append만 함
+	 */
+	public String concatenate6(String filepath) throws IOException {
+		return lineReadTemplate5(filepath, new LineCallback5<StringBuilder>() {
+			
+			@Override
+			public StringBuilder doSomethingWithLine(String line, StringBuilder value) {
+				return value.append(line);
+			}
+			
+		}, new StringBuilder()).toString();
+	}
+
+	
+	/*
+	 * 큰 숫자 로그 파일용 템플릿
+	 * 	- 파일을 줄바꿈 경계에서 조각으로 나눠 조각마다 메모리 맵
+	 * 	- 각 조각은 ForkJoinPool에서 BufferedReader, String 없이 byte 단위로 라인을 찾아 콜백 호출
+	 * 	- 조각별 결과는 파일 순서대로 callback.combine()으로 합침
+	 */
+	public <T> T mappedLineReadTemplate(String filepath, final MappedLineCallback<T> callback, final T initValue) throws IOException {
+		final FileChannel channel = FileChannel.open(Paths.get(filepath), StandardOpenOption.READ);
+		
+		try {
+			final long[] boundaries = splitOnLines(channel);
+			
+			return this.forkJoinPool.invoke(new MappedLineTask<T>(channel, boundaries, 0, boundaries.length - 1, callback, initValue));
+			
+		} catch (UncheckedIOException uioe) {
+			throw uioe.getCause();
+			
+		} finally {
+			channel.close();
+		}
+	}
+	
+	/*
+	 * mappedLineReadTemplate의 int 전용 버전
+	 * 	- 라인마다 누적값을 boxing 하지 않도록 조각별 결과도 task의 int field에 둠
+	 */
+	public int intMappedLineReadTemplate(String filepath, IntMappedLineCallback callback, int initValue) throws IOException {
+		final FileChannel channel = FileChannel.open(Paths.get(filepath), StandardOpenOption.READ);
+		
+		try {
+			final long[] boundaries = splitOnLines(channel);
+			IntMappedLineTask task = new IntMappedLineTask(channel, boundaries, 0, boundaries.length - 1, callback, initValue);
+			this.forkJoinPool.invoke(task);
+			
+			return task.result;
+			
+		} catch (UncheckedIOException uioe) {
+			throw uioe.getCause();
+			
+		} finally {
+			channel.close();
+		}
+	}
+	
+	/*
+	 * chunkSize 간격마다 그 다음 줄바꿈 바로 뒤를 조각 경계로 잡음
+	 * 	- 반환값은 [0, ..., 파일 크기]
+	 */
+	private long[] splitOnLines(FileChannel channel) throws IOException {
+		long size = channel.size();
+		List<Long> boundaries = new ArrayList<Long>();
+		ByteBuffer buf = ByteBuffer.allocate(256);
+		
+		boundaries.add(0L);
+		long pos = this.chunkSize;
+		while (pos < size) {
+			long next = -1;
+			
+			while (next < 0 && pos < size) {
+				buf.clear();
+				int read = channel.read(buf, pos);
+				for (int i = 0; i < read; i++) {
+					if (buf.get(i) == '\n') {
+						next = pos + i + 1;
+						break;
+					}
+				}
+				pos += read;
+			}
+			
+			if (next < 0 || next >= size) {
+				break;
+			}
+			boundaries.add(next);
+			pos = next + this.chunkSize;
+		}
+		boundaries.add(size);
+		
+		long[] res = new long[boundaries.size()];
+		for (int i = 0; i < res.length; i++) {
+			res[i] = boundaries.get(i);
+		}
+		
+		return res;
+	}
+	
+	/*
+	 * 조각 [from, to)를 반으로 나눠 fork하고 왼쪽, 오른쪽 순서로 combine
+	 */
+	@SuppressWarnings("serial")
+	private static class MappedLineTask<T> extends RecursiveTask<T> {
+		
+		private final FileChannel channel;
+		private final long[] boundaries;
+		private final int from;
+		private final int to;
+		private final MappedLineCallback<T> callback;
+		private final T initValue;
+		
+		MappedLineTask(FileChannel channel, long[] boundaries, int from, int to, MappedLineCallback<T> callback, T initValue) {
+			this.channel = channel;
+			this.boundaries = boundaries;
+			this.from = from;
+			this.to = to;
+			this.callback = callback;
+			this.initValue = initValue;
+		}
+		
+		@Override
+		protected T compute() {
+			if (to - from > 1) {
+				int mid = (from + to) >>> 1;
+				MappedLineTask<T> left = new MappedLineTask<T>(channel, boundaries, from, mid, callback, initValue);
+				MappedLineTask<T> right = new MappedLineTask<T>(channel, boundaries, mid, to, callback, initValue);
+				
+				left.fork();
+				T rightValue = right.compute();
+				
+				return callback.combine(left.join(), rightValue);
+			}
+			
+			try {
+				return readChunk();
+				
+			} catch (IOException ioe) {
+				throw new UncheckedIOException(ioe);
+			}
+		}
+		
+		private T readChunk() throws IOException {
+			long start = boundaries[from];
+			long end = boundaries[to];
+			T res = initValue;
+			if (start == end) {
+				return res;
+			}
+			
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+			int limit = buffer.limit();
+			int lineStart = 0;
+			
+			for (int i = 0; i <= limit; i++) {
+				if (i == limit || buffer.get(i) == '\n') {
+					int lineEnd = i;
+					// CRLF 파일
+					if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+						lineEnd--;
+					}
+					// 빈 라인은 넘어감
+					if (lineEnd > lineStart) {
+						res = callback.doSomethingWithLine(buffer, lineStart, lineEnd, res);
+					}
+					lineStart = i + 1;
+				}
+			}
+			
+			return res;
+		}
+		
+	}
+	
+	/*
+	 * MappedLineTask와 같은 방식, 결과는 result에 int로 남김
+	 */
+	@SuppressWarnings("serial")
+	private static class IntMappedLineTask extends RecursiveAction {
+		
+		private final FileChannel channel;
+		private final long[] boundaries;
+		private final int from;
+		private final int to;
+		private final IntMappedLineCallback callback;
+		private final int initValue;
+		
+		int result;
+		
+		IntMappedLineTask(FileChannel channel, long[] boundaries, int from, int to, IntMappedLineCallback callback, int initValue) {
+			this.channel = channel;
+			this.boundaries = boundaries;
+			this.from = from;
+			this.to = to;
+			this.callback = callback;
+			this.initValue = initValue;
+		}
+		
+		@Override
+		protected void compute() {
+			if (to - from > 1) {
+				int mid = (from + to) >>> 1;
+				IntMappedLineTask left = new IntMappedLineTask(channel, boundaries, from, mid, callback, initValue);
+				IntMappedLineTask right = new IntMappedLineTask(channel, boundaries, mid, to, callback, initValue);
+				
+				left.fork();
+				right.compute();
+				left.join();
+				
+				result = callback.combine(left.result, right.result);
+				return;
+			}
+			
+			try {
+				result = readChunk();
+				
+			} catch (IOException ioe) {
+				throw new UncheckedIOException(ioe);
+			}
+		}
+		
+		private int readChunk() throws IOException {
+			long start = boundaries[from];
+			long end = boundaries[to];
+			int res = initValue;
+			if (start == end) {
+				return res;
+			}
+			
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+			int limit = buffer.limit();
+			int lineStart = 0;
+			
+			for (int i = 0; i <= limit; i++) {
+				if (i == limit || buffer.get(i) == '\n') {
+					int lineEnd = i;
+					// CRLF 파일
+					if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+						lineEnd--;
+					}
+					// 빈 라인은 넘어감
+					if (lineEnd > lineStart) {
+						res = callback.doSomethingWithLine(buffer, lineStart, lineEnd, res);
+					}
+					lineStart = i + 1;
+				}
+			}
+			
+			return res;
+		}
+		
+	}
+	
+	/*
+	 * buffer의 [start, end) 구간을 String 없이 int로 변환
+	 * 	- 앞뒤 공백 허용, 앞에 '-', '+' 부호 허용
+	 */
+	public static int parseInt(ByteBuffer buffer, int start, int end) {
+		while (start < end && isBlank(buffer.get(start))) {
+			start++;
+		}
+		while (end > start && isBlank(buffer.get(end - 1))) {
+			end--;
+		}
+		
+		boolean negative = false;
+		if (start < end && (buffer.get(start) == '-' || buffer.get(start) == '+')) {
+			negative = buffer.get(start) == '-';
+			start++;
+		}
+		if (start >= end) {
+			throw new NumberFormatException("숫자가 아닙니다");
+		}
+		
+		/*
+		 * Integer.MIN_VALUE까지 표현하도록 음수로 누적 (Integer.parseInt와 같은 방식)
+		 */
+		int res = 0;
+		for (int i = start; i < end; i++) {
+			int digit = buffer.get(i) - '0';
+			if (digit < 0 || digit > 9) {
+				throw new NumberFormatException("숫자가 아닙니다: " + (char) buffer.get(i));
+			}
+			if (res < (Integer.MIN_VALUE + digit) / 10) {
+				throw new NumberFormatException("int 범위를 넘는 숫자입니다");
+			}
+			res = res * 10 - digit;
+		}
+		if (!negative && res == Integer.MIN_VALUE) {
+			throw new NumberFormatException("int 범위를 넘는 숫자입니다");
+		}
+		
+		return negative ? res : -res;
+	}
+	
+	private static boolean isBlank(byte b) {
+		return b == ' ' || b == '\t';
+	}
+	
+	public int parallelCalcSum(String filepath) throws IOException {
+		return intMappedLineReadTemplate(filepath, new IntMappedLineCallback() {
+			
+			@Override
+			public int doSomethingWithLine(ByteBuffer buffer, int start, int end, int value) {
+				return value + parseInt(buffer, start, end);
+			}
+			
+			@Override
+			public int combine(int left, int right) {
+				return left + right;
+			}
+			
+		}, 0);
+	}
+	
+	public int parallelCalcMultiply(String filepath) throws IOException {
+		return intMappedLineReadTemplate(filepath, new IntMappedLineCallback() {
+			
+			@Override
+			public int doSomethingWithLine(ByteBuffer buffer, int start, int end, int value) {
+				return value * parseInt(buffer, start, end);
+			}
+			
+			@Override
+			public int combine(int left, int right) {
+				return left * right;
+			}
+			
+		}, 1);
+	}
 
 }
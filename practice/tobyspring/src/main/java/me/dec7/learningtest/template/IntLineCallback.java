@@ -0,0 +1,12 @@
+package me.dec7.learningtest.template;
+
+
+/*
+ * LineCallback5<Integer>는 라인마다 Integer boxing이 일어남
+ * 	- 누적값을 int 그대로 주고받는 전용 콜백
+ */
+public interface IntLineCallback {
+	
+	int doSomethingWithLine(String line, int value);
+	
+}
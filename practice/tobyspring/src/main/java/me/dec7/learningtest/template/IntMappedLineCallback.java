@@ -0,0 +1,17 @@
+package me.dec7.learningtest.template;
+
+import java.nio.ByteBuffer;
+
+
+/*
+ * MappedLineCallback<Integer>는 라인마다 Integer boxing이 일어남
+ * 	- 누적값을 int 그대로 주고받는 메모리 맵 파일 전용 콜백 (IntLineCallback의 메모리 맵 버전)
+ * 	- combine()과 initValue의 조건은 MappedLineCallback과 같음
+ */
+public interface IntMappedLineCallback {
+	
+	int doSomethingWithLine(ByteBuffer buffer, int start, int end, int value);
+	
+	int combine(int left, int right);
+	
+}
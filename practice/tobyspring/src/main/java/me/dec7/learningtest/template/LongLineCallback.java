@@ -0,0 +1,11 @@
+package me.dec7.learningtest.template;
+
+
+/*
+ * 누적값이 int 범위를 넘을 수 있을 때 쓰는 long 전용 콜백
+ */
+public interface LongLineCallback {
+	
+	long doSomethingWithLine(String line, long value);
+	
+}
@@ -0,0 +1,19 @@
+package me.dec7.learningtest.template;
+
+import java.nio.ByteBuffer;
+
+
+/*
+ * 메모리 맵 파일을 나눠서 병렬로 처리할 때 쓰는 LineCallback
+ * 	- 라인을 String으로 만들지 않고 buffer의 [start, end) 구간을 그대로 넘김
+ * 	- 조각마다 initValue에서 시작해 계산한 부분 결과를 combine()으로 합침
+ * 	- 따라서 combine()은 결합 법칙이 성립하고 initValue는 항등원이어야 함
+ * 	  (합은 0, 곱은 1) 교환 법칙은 필요 없음, 조각 순서대로 합침
+ */
+public interface MappedLineCallback<T> {
+	
+	T doSomethingWithLine(ByteBuffer buffer, int start, int end, T value);
+	
+	T combine(T left, T right);
+	
+}
@@ -3,26 +3,58 @@ package me.dec7.user.dao;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
 
 import me.dec7.user.domain.User;
 
-public class AddStatement implements StatementStrategy {
-	
-	private User user;
-	
+
+/*
+ * 한 명은 StatementStrategy, 여러 명은 BatchStatementStrategy로 추가
+ * 	- 두 경우 모두 같은 insert 문을 사용
+ */
+public class AddStatement implements StatementStrategy, BatchStatementStrategy {
+
+	private static final String SQL = "insert into users(id, name, password) values(?, ?, ?)";
+
+	private List<User> users;
+
 	public AddStatement(User user) {
-		this.user = user;
+		this.users = Collections.singletonList(user);
+	}
+
+	public AddStatement(List<User> users) {
+		this.users = users;
 	}
 
 	@Override
 	public PreparedStatement makePreparedStatement(Connection c) throws SQLException {
-		PreparedStatement ps = c.prepareStatement("insert into users(id, name, password) values(?, ?, ?)");
-		
+		PreparedStatement ps = c.prepareStatement(SQL);
+
+		setValues(ps, 0);
+
+		return ps;
+	}
+
+	@Override
+	public PreparedStatement makeBatchStatement(Connection c) throws SQLException {
+		PreparedStatement ps = c.prepareStatement(SQL);
+
+		return ps;
+	}
+
+	@Override
+	public int getBatchCount() {
+		return users.size();
+	}
+
+	@Override
+	public void setValues(PreparedStatement ps, int i) throws SQLException {
+		User user = users.get(i);
+
 		ps.setString(1, user.getId());
 		ps.setString(2, user.getName());
 		ps.setString(3, user.getPassword());
-		
-		return ps;
 	}
 
 }
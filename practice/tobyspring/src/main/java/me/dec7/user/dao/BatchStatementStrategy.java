@@ -0,0 +1,22 @@
+package me.dec7.user.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+
+/*
+ * 여러 parameter 묶음을 한 PreparedStatement로 실행하는 전략
+ * 	- makeBatchStatement()는 parameter 없이 statement만 만듦 (한 번만 호출)
+ * 	- setValues()는 i번째 parameter 묶음을 채움 (getBatchCount() 만큼 호출)
+ * 	- addBatch(), executeBatch()는 JdbcContext가 담당
+ */
+public interface BatchStatementStrategy {
+
+	PreparedStatement makeBatchStatement(Connection c) throws SQLException;
+
+	int getBatchCount();
+
+	void setValues(PreparedStatement ps, int i) throws SQLException;
+
+}
@@ -2,6 +2,7 @@ package me.dec7.user.dao;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /*
@@ -10,7 +11,10 @@ import java.sql.SQLException;
  */
 public class CountingConnectionMaker implements ConnectionMaker {
 
-	int counter = 0;
+	/*
+	 * PooledDataSource 아래에서는 여러 thread가 동시에 호출하므로 AtomicInteger
+	 */
+	AtomicInteger counter = new AtomicInteger();
 	private ConnectionMaker realConnectionMaker;
 	
 	/*
@@ -22,14 +26,14 @@ public class CountingConnectionMaker implements ConnectionMaker {
 
 	@Override
 	public Connection makeConnection() throws ClassNotFoundException, SQLException {
-		this.counter++;
+		this.counter.incrementAndGet();
 		
 		return this.realConnectionMaker.makeConnection();
 	}
 	
 	public int getCounter() {
 		
-		return this.counter;
+		return this.counter.get();
 	}
 
 }
@@ -4,7 +4,6 @@ import javax.sql.DataSource;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.jdbc.datasource.SimpleDriverDataSource;
 
 /*
  * 1.7.3 / Dependency Lookup (의존관계 검색)
@@ -96,14 +95,19 @@ public class DaoFactory {
 		return new CountingConnectionMaker(realConnectionMaker());
 	}
 	
-	@Bean
+	/*
+	 * SimpleDriverDataSource는 DAO 호출마다 물리 connection을 새로 만듦
+	 * PooledDataSource는 connectionMaker()로 만든 connection을 재사용하므로
+	 * CountingConnectionMaker의 counter는 pool이 실제로 만든 connection 수가 됨
+	 */
+	@Bean(destroyMethod = "close")
 	public DataSource dataSource() {
-		SimpleDriverDataSource dataSource = new SimpleDriverDataSource();
+		PooledDataSource dataSource = new PooledDataSource();
 		
-		dataSource.setDriverClass(com.mysql.jdbc.Driver.class);
-		dataSource.setUrl("jdbc:mysql://localhost/springbook");
-		dataSource.setUsername("spring");
-		dataSource.setPassword("book");
+		dataSource.setConnectionMaker(connectionMaker());
+		dataSource.setMinSize(2);
+		dataSource.setMaxSize(10);
+		dataSource.setLeakDetectionThresholdMillis(30000);
 		
 		return dataSource;
 	}
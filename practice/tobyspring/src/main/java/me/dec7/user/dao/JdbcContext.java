@@ -2,7 +2,9 @@ package me.dec7.user.dao;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 import javax.sql.DataSource;
 
@@ -13,12 +15,42 @@ import javax.sql.DataSource;
  */
 public class JdbcContext {
 	
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+	/*
+	 * MySQL(Connector/J 5.1)은 TYPE_FORWARD_ONLY, CONCUR_READ_ONLY statement에
+	 * fetch size가 Integer.MIN_VALUE일 때만 row 단위로 streaming 함
+	 * 	- 양수 fetch size는 URL에 useCursorFetch=true가 없으면 무시되고 결과 전체를 메모리에 올림
+	 */
+	public static final int DEFAULT_FETCH_SIZE = Integer.MIN_VALUE;
+	
 	private DataSource dataSource;
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private int fetchSize = DEFAULT_FETCH_SIZE;
 	
 	public void setDataSource(DataSource dataSource) {
 		this.dataSource = dataSource;
 	}
 	
+	/*
+	 * executeBatch() 한 번에 보낼 parameter 묶음 수
+	 * 	- MySQL의 rewriteBatchedStatements=true는 한 batch를 multi-row insert 하나로 바꾸므로
+	 * 	  너무 크면 max_allowed_packet을 넘을 수 있음
+	 */
+	public void setBatchSize(int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("batchSize는 1 이상이어야 합니다: " + batchSize);
+		}
+		this.batchSize = batchSize;
+	}
+	
+	/*
+	 * 조회할 때 드라이버가 한 번에 가져올 row 수 (0이면 드라이버 기본값)
+	 * 	- 기본값 Integer.MIN_VALUE는 MySQL 전용, H2 등 음수를 받지 않는 DB에서는 양수로 바꿔야 함
+	 */
+	public void setFetchSize(int fetchSize) {
+		this.fetchSize = fetchSize;
+	}
+	
 	public void workWithStatementStrategy(StatementStrategy stmtStrategy) throws SQLException {
 		Connection c = null;
 		PreparedStatement ps = null;
@@ -49,6 +81,158 @@ public class JdbcContext {
 		}
 	}
 	
+	/*
+	 * 조회 결과를 List로 모으지 않고 row마다 callback에 넘김
+	 * 	- MySQL에서 streaming 하려면 stmtStrategy도 TYPE_FORWARD_ONLY, CONCUR_READ_ONLY로 만들어야 함
+	 * 	- streaming 중에는 같은 connection으로 다른 query를 실행할 수 없음
+	 * 	- 반환값은 처리한 row 수
+	 */
+	public int workWithRowCallback(StatementStrategy stmtStrategy, RowCallback callback) throws SQLException {
+		Connection c = null;
+		PreparedStatement ps = null;
+		ResultSet rs = null;
+		
+		try {
+			c = this.dataSource.getConnection();
+			
+			ps = stmtStrategy.makePreparedStatement(c);
+			if (this.fetchSize != 0) {
+				ps.setFetchSize(this.fetchSize);
+			}
+			
+			rs = ps.executeQuery();
+			
+			int rows = 0;
+			while (rs.next()) {
+				callback.processRow(rs);
+				rows++;
+			}
+			
+			return rows;
+			
+		} catch (SQLException sqle) {
+			throw sqle;
+			
+		} finally {
+			if (rs != null) {
+				try {
+					rs.close();
+				} catch (SQLException sqle) { }
+			}
+			
+			if (ps != null) {
+				try {
+					ps.close();
+				} catch (SQLException sqle) { }
+			}
+			
+			if (c != null) {
+				try {
+					c.close();
+					
+				} catch (SQLException sqle) { }
+			}
+		}
+	}
+	
+	public int query(final String query, RowCallback callback) throws SQLException {
+		return workWithRowCallback(new StatementStrategy() {
+			
+			@Override
+			public PreparedStatement makePreparedStatement(Connection c) throws SQLException {
+				PreparedStatement ps = c.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+				
+				return ps;
+			}
+			
+		}, callback);
+	}
+	
+	/*
+	 * 한 connection, 한 PreparedStatement로 batchSize씩 addBatch() / executeBatch()
+	 * 	- 드라이버가 batch를 다시 쓸 수 있도록 같은 SQL만 쌓고 중간에 다른 statement를 실행하지 않음
+	 * 	- 전체를 한 transaction으로 묶어 commit은 마지막에 한 번, 실패하면 전부 rollback
+	 * 	- rewriteBatchedStatements=true이면 건별 결과 대신 Statement.SUCCESS_NO_INFO가 올 수 있음
+	 * 	- 반환값은 parameter 묶음별 update count
+	 */
+	public int[] workWithBatchStatementStrategy(BatchStatementStrategy stmtStrategy) throws SQLException {
+		Connection c = null;
+		PreparedStatement ps = null;
+		boolean autoCommit = true;
+		boolean committed = false;
+		
+		int count = stmtStrategy.getBatchCount();
+		int[] updateCounts = new int[count];
+		
+		try {
+			c = this.dataSource.getConnection();
+			
+			autoCommit = c.getAutoCommit();
+			if (autoCommit) {
+				c.setAutoCommit(false);
+			}
+			
+			ps = stmtStrategy.makeBatchStatement(c);
+			
+			int executed = 0;
+			for (int i = 0; i < count; i++) {
+				stmtStrategy.setValues(ps, i);
+				ps.addBatch();
+				
+				if (i + 1 - executed == this.batchSize || i + 1 == count) {
+					int[] counts = ps.executeBatch();
+					/*
+					 * 드라이버에 따라 묶음별 결과를 주지 않을 수 있음
+					 */
+					for (int j = 0; j < i + 1 - executed; j++) {
+						updateCounts[executed + j] = j < counts.length ? counts[j] : Statement.SUCCESS_NO_INFO;
+					}
+					executed = i + 1;
+				}
+			}
+			
+			if (autoCommit) {
+				c.commit();
+			}
+			committed = true;
+			
+			return updateCounts;
+			
+		} catch (SQLException sqle) {
+			throw sqle;
+			
+		} finally {
+			/*
+			 * SQLException이 아닌 RuntimeException으로 중단돼도 rollback
+			 * 	- rollback 없이 setAutoCommit(true)를 부르면 이미 실행된 batch가 commit 됨
+			 */
+			if (c != null && autoCommit && !committed) {
+				try {
+					c.rollback();
+				} catch (SQLException ignored) { }
+			}
+			
+			if (ps != null) {
+				try {
+					ps.close();
+				} catch (SQLException sqle) { }
+			}
+			
+			if (c != null) {
+				try {
+					if (autoCommit) {
+						c.setAutoCommit(true);
+					}
+				} catch (SQLException sqle) { }
+				
+				try {
+					c.close();
+					
+				} catch (SQLException sqle) { }
+			}
+		}
+	}
+	
 	public void executeSql(final String query) throws SQLException {
 		workWithStatementStrategy(new StatementStrategy() {
 
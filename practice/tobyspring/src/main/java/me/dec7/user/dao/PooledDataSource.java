@@ -0,0 +1,435 @@
+package me.dec7.user.dao;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/*
+ * ConnectionMaker로 만든 물리 connection을 재사용하는 connection pool
+ *
+ * SimpleDriverDataSource, SimpleConnectionMaker
+ *  - DAO method를 호출할 때마다 DB connection을 새로 만들고 닫음
+ *
+ * PooledDataSource
+ *  - DataSource이면서 ConnectionMaker이므로 두 방식 모두에 그대로 끼워 넣을 수 있음
+ *  - close()하면 물리 connection을 닫지 않고 pool로 돌려보냄
+ *  - 빌려줄 때 Connection.isValid()로 검사해 끊어진 connection은 버림
+ *  - leakDetectionThresholdMillis보다 오래 돌려받지 못한 connection은 빌려간 위치와 함께 보고
+ *  - CountingConnectionMaker처럼 빌려준 횟수, 대기 시간, 생성 시간 등을 셈
+ */
+public class PooledDataSource implements DataSource, ConnectionMaker {
+
+	private static final Log log = LogFactory.getLog(PooledDataSource.class);
+
+	private ConnectionMaker connectionMaker;
+	private int minSize = 2;
+	private int maxSize = 10;
+	private long maxWaitMillis = 5000;
+	private int validationTimeoutSeconds = 1;
+	private long leakDetectionThresholdMillis = 0;
+
+	private final BlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<PooledConnection>();
+	private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+	/*
+	 * getConnection()이 synchronized 밖에서 null인지 확인하므로 volatile
+	 */
+	private volatile Semaphore permits;
+	private Timer leakDetector;
+	private volatile boolean closed;
+
+	private final AtomicLong borrowCount = new AtomicLong();
+	private final AtomicLong waitCount = new AtomicLong();
+	private final AtomicLong totalWaitNanos = new AtomicLong();
+	private volatile long maxWaitNanos;
+	private final AtomicLong timeoutCount = new AtomicLong();
+	private final AtomicLong createdCount = new AtomicLong();
+	private final AtomicLong totalCreateNanos = new AtomicLong();
+	private final AtomicLong invalidCount = new AtomicLong();
+	private final AtomicLong leakCount = new AtomicLong();
+
+	public void setConnectionMaker(ConnectionMaker connectionMaker) {
+		this.connectionMaker = connectionMaker;
+	}
+
+	public void setMinSize(int minSize) {
+		this.minSize = minSize;
+	}
+
+	public void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	public void setMaxWaitMillis(long maxWaitMillis) {
+		this.maxWaitMillis = maxWaitMillis;
+	}
+
+	public void setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+		this.validationTimeoutSeconds = validationTimeoutSeconds;
+	}
+
+	// 0이면 leak 검사를 하지 않음
+	public void setLeakDetectionThresholdMillis(long leakDetectionThresholdMillis) {
+		this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+	}
+
+	/*
+	 * 처음 connection을 요청할 때 자동으로 호출되지만
+	 * bean 초기화 시점에 minSize만큼 미리 만들어 두려면 init-method로 지정
+	 */
+	public synchronized void init() throws SQLException {
+		if (this.permits != null) {
+			return;
+		}
+		if (this.minSize > this.maxSize) {
+			throw new IllegalArgumentException("minSize(" + this.minSize + ")가 maxSize(" + this.maxSize + ")보다 큽니다");
+		}
+
+		this.permits = new Semaphore(this.maxSize, true);
+		for (int i = 0; i < this.minSize; i++) {
+			this.idle.offerLast(createConnection());
+		}
+
+		if (this.leakDetectionThresholdMillis > 0) {
+			long period = Math.max(this.leakDetectionThresholdMillis / 2, 100);
+			this.leakDetector = new Timer("connection-leak-detector", true);
+			this.leakDetector.schedule(new TimerTask() {
+
+				@Override
+				public void run() {
+					for (Throwable leak : detectLeaks()) {
+						log.warn("connection이 " + leakDetectionThresholdMillis + "ms 넘게 반환되지 않았습니다", leak);
+					}
+				}
+
+			}, period, period);
+		}
+	}
+
+	public synchronized void close() {
+		this.closed = true;
+		if (this.leakDetector != null) {
+			this.leakDetector.cancel();
+		}
+
+		PooledConnection pooled;
+		while ((pooled = this.idle.pollFirst()) != null) {
+			pooled.closePhysical();
+		}
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		if (this.permits == null) {
+			init();
+		}
+		if (this.closed) {
+			throw new SQLException("이미 닫힌 connection pool입니다");
+		}
+
+		long started = System.nanoTime();
+		boolean acquired = this.permits.tryAcquire();
+		if (!acquired) {
+			this.waitCount.incrementAndGet();
+			try {
+				acquired = this.permits.tryAcquire(this.maxWaitMillis, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				throw new SQLException("connection을 기다리는 중 interrupt 되었습니다", ie);
+			}
+			recordWait(System.nanoTime() - started);
+		}
+		if (!acquired) {
+			this.timeoutCount.incrementAndGet();
+			throw new SQLException(this.maxWaitMillis + "ms 안에 connection을 얻지 못했습니다 (maxSize=" + this.maxSize + ")");
+		}
+
+		try {
+			PooledConnection pooled = borrowIdleOrCreate();
+			pooled.borrowedAt = System.currentTimeMillis();
+			pooled.borrowedBy = this.leakDetectionThresholdMillis > 0 ? new Throwable("connection을 빌려간 위치") : null;
+			pooled.leakReported = false;
+			this.borrowed.add(pooled);
+			this.borrowCount.incrementAndGet();
+
+			return pooled.newHandle();
+
+		} catch (SQLException sqle) {
+			this.permits.release();
+			throw sqle;
+		}
+	}
+
+	@Override
+	public Connection makeConnection() throws ClassNotFoundException, SQLException {
+
+		return getConnection();
+	}
+
+	// 최근에 반납된 connection부터 사용 (LIFO)
+	private PooledConnection borrowIdleOrCreate() throws SQLException {
+		PooledConnection pooled;
+		while ((pooled = this.idle.pollFirst()) != null) {
+			if (pooled.isValid()) {
+				return pooled;
+			}
+			this.invalidCount.incrementAndGet();
+			pooled.closePhysical();
+		}
+
+		return createConnection();
+	}
+
+	private PooledConnection createConnection() throws SQLException {
+		long started = System.nanoTime();
+		try {
+			Connection physical = this.connectionMaker.makeConnection();
+
+			return new PooledConnection(physical);
+
+		} catch (ClassNotFoundException cnfe) {
+			throw new SQLException("JDBC driver를 찾을 수 없습니다", cnfe);
+
+		} finally {
+			this.createdCount.incrementAndGet();
+			this.totalCreateNanos.addAndGet(System.nanoTime() - started);
+		}
+	}
+
+	private void giveBack(PooledConnection pooled) {
+		this.borrowed.remove(pooled);
+		if (this.closed || !pooled.reset()) {
+			pooled.closePhysical();
+		} else {
+			this.idle.offerFirst(pooled);
+		}
+		this.permits.release();
+	}
+
+	private void recordWait(long waitNanos) {
+		this.totalWaitNanos.addAndGet(waitNanos);
+		if (waitNanos > this.maxWaitNanos) {
+			this.maxWaitNanos = waitNanos;
+		}
+	}
+
+	/*
+	 * leakDetectionThresholdMillis보다 오래 반납되지 않은 connection을 빌려간 위치
+	 * 같은 connection은 한 번만 보고함
+	 */
+	public List<Throwable> detectLeaks() {
+		List<Throwable> leaks = new ArrayList<Throwable>();
+		if (this.leakDetectionThresholdMillis <= 0) {
+			return leaks;
+		}
+
+		long now = System.currentTimeMillis();
+		for (PooledConnection pooled : this.borrowed) {
+			if (!pooled.leakReported && now - pooled.borrowedAt > this.leakDetectionThresholdMillis) {
+				pooled.leakReported = true;
+				this.leakCount.incrementAndGet();
+				leaks.add(pooled.borrowedBy);
+			}
+		}
+
+		return leaks;
+	}
+
+	public int getActiveCount() { return this.borrowed.size(); }
+	public int getIdleCount() { return this.idle.size(); }
+
+	public long getBorrowCount() { return this.borrowCount.get(); }
+	public long getWaitCount() { return this.waitCount.get(); }
+	public long getTimeoutCount() { return this.timeoutCount.get(); }
+	public long getCreatedCount() { return this.createdCount.get(); }
+	public long getInvalidCount() { return this.invalidCount.get(); }
+	public long getLeakCount() { return this.leakCount.get(); }
+
+	public double getAverageWaitMillis() {
+		long waits = this.waitCount.get();
+
+		return waits == 0 ? 0 : this.totalWaitNanos.get() / 1000000.0 / waits;
+	}
+
+	public double getMaxWaitMillis() {
+		return this.maxWaitNanos / 1000000.0;
+	}
+
+	public double getAverageCreateMillis() {
+		long created = this.createdCount.get();
+
+		return created == 0 ? 0 : this.totalCreateNanos.get() / 1000000.0 / created;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("active=%d, idle=%d, borrows=%d, waits=%d (avg %.2fms, max %.2fms), timeouts=%d, created=%d (avg %.2fms), invalid=%d, leaks=%d",
+				getActiveCount(), getIdleCount(), getBorrowCount(), getWaitCount(), getAverageWaitMillis(), getMaxWaitMillis(),
+				getTimeoutCount(), getCreatedCount(), getAverageCreateMillis(), getInvalidCount(), getLeakCount());
+	}
+
+
+	/*
+	 * pool이 관리하는 물리 connection
+	 * 빌려줄 때마다 새 handle(proxy)을 만들어, 반납한 뒤 옛 handle로 접근하지 못하게 함
+	 */
+	private class PooledConnection {
+
+		private final Connection physical;
+		private volatile long borrowedAt;
+		private volatile Throwable borrowedBy;
+		private volatile boolean leakReported;
+
+		PooledConnection(Connection physical) {
+			this.physical = physical;
+		}
+
+		Connection newHandle() {
+			return (Connection) Proxy.newProxyInstance(PooledDataSource.class.getClassLoader(),
+					new Class<?>[] { Connection.class }, new ConnectionHandle(this));
+		}
+
+		boolean isValid() {
+			try {
+				return this.physical.isValid(validationTimeoutSeconds);
+			} catch (SQLException sqle) {
+				return false;
+			}
+		}
+
+		// 다음 사용자를 위해 트랜잭션 상태를 되돌림
+		boolean reset() {
+			try {
+				if (this.physical.isClosed()) {
+					return false;
+				}
+				if (!this.physical.getAutoCommit()) {
+					this.physical.rollback();
+					this.physical.setAutoCommit(true);
+				}
+				if (this.physical.isReadOnly()) {
+					this.physical.setReadOnly(false);
+				}
+				this.physical.clearWarnings();
+
+				return true;
+
+			} catch (SQLException sqle) {
+				return false;
+			}
+		}
+
+		void closePhysical() {
+			try {
+				this.physical.close();
+			} catch (SQLException sqle) { }
+		}
+	}
+
+	private class ConnectionHandle implements InvocationHandler {
+
+		private PooledConnection pooled;
+
+		ConnectionHandle(PooledConnection pooled) {
+			this.pooled = pooled;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+
+			if (name.equals("close")) {
+				synchronized (this) {
+					if (this.pooled != null) {
+						giveBack(this.pooled);
+						this.pooled = null;
+					}
+				}
+				return null;
+			}
+			if (name.equals("isClosed")) {
+				return this.pooled == null;
+			}
+			if (name.equals("equals")) {
+				return proxy == args[0];
+			}
+			if (name.equals("hashCode")) {
+				return System.identityHashCode(proxy);
+			}
+
+			PooledConnection pooled = this.pooled;
+			if (pooled == null) {
+				throw new SQLException("이미 pool에 반납된 connection입니다");
+			}
+			try {
+				return method.invoke(pooled.physical, args);
+			} catch (InvocationTargetException ite) {
+				throw ite.getTargetException();
+			}
+		}
+	}
+
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		throw new SQLFeatureNotSupportedException("pool은 ConnectionMaker에 설정된 계정만 사용합니다");
+	}
+
+	@Override
+	public PrintWriter getLogWriter() throws SQLException {
+		return null;
+	}
+
+	@Override
+	public void setLogWriter(PrintWriter out) throws SQLException {
+	}
+
+	@Override
+	public void setLoginTimeout(int seconds) throws SQLException {
+	}
+
+	@Override
+	public int getLoginTimeout() throws SQLException {
+		return 0;
+	}
+
+	@Override
+	public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		if (iface.isInstance(this)) {
+			return (T) this;
+		}
+		throw new SQLException(getClass().getName() + "은 " + iface.getName() + "이 아닙니다");
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return iface.isInstance(this);
+	}
+}
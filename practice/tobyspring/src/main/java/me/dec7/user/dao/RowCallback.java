@@ -0,0 +1,16 @@
+package me.dec7.user.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+
+/*
+ * 조회 결과를 한 row씩 처리하는 callback
+ * 	- rs.next()는 JdbcContext가 호출하므로 현재 row만 읽어야 함
+ * 	- 결과를 쌓아두지 않고 바로 처리하면 row 수와 상관없이 일정한 메모리로 처리 가능
+ */
+public interface RowCallback {
+
+	void processRow(ResultSet rs) throws SQLException;
+
+}
@@ -3,7 +3,12 @@ package me.dec7.learningtest.template;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -33,4 +38,86 @@ public class CalcSumTest {
 	public void concatenateStrings() throws IOException {		
 		assertThat(calculator.concatenate5(this.numFilePath), is("1234"));
 	}
+	
+	@Test
+	public void primitiveCallbacks() throws IOException {
+		assertThat(calculator.calcSum6(this.numFilePath), is(10));
+		assertThat(calculator.calcMultiply6(this.numFilePath), is(24));
+		assertThat(calculator.calcLongSum6(this.numFilePath), is(10L));
+		assertThat(calculator.concatenate6(this.numFilePath), is("1234"));
+	}
+	
+	@Test
+	public void parallelSumAndMultiply() throws IOException {
+		assertThat(calculator.parallelCalcSum(this.numFilePath), is(10));
+		assertThat(calculator.parallelCalcMultiply(this.numFilePath), is(24));
+	}
+	
+	@Test
+	public void parallelSumOfManyChunks() throws IOException {
+		/*
+		 * 조각을 아주 작게 잡아서 경계 처리 확인
+		 * 	- CRLF, 음수, 빈 라인, 마지막 줄바꿈 없음
+		 */
+		StringBuilder content = new StringBuilder();
+		int expected = 0;
+		for (int i = 0; i < 100000; i++) {
+			int n = i % 3 == 0 ? -i : i;
+			content.append(n).append(i % 2 == 0 ? "\r\n" : "\n");
+			if (i % 1000 == 0) {
+				content.append("\n");
+			}
+			expected += n;
+		}
+		content.append("7");
+		expected += 7;
+		
+		File file = File.createTempFile("numbers", ".txt");
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.US_ASCII));
+			
+			calculator.setChunkSize(1000);
+			calculator.setForkJoinPool(pool);
+			
+			assertThat(calculator.parallelCalcSum(file.getPath()), is(expected));
+			/*
+			 * generic 템플릿도 같은 조각 경계로 계산
+			 */
+			assertThat(calculator.mappedLineReadTemplate(file.getPath(), new MappedLineCallback<Long>() {
+				
+				@Override
+				public Long doSomethingWithLine(ByteBuffer buffer, int start, int end, Long value) {
+					return value + Calculator.parseInt(buffer, start, end);
+				}
+				
+				@Override
+				public Long combine(Long left, Long right) {
+					return left + right;
+				}
+				
+			}, 0L), is((long) expected));
+			
+		} finally {
+			pool.shutdown();
+			file.delete();
+		}
+	}
+	
+	@Test
+	public void parseIntWithoutString() {
+		assertThat(Calculator.parseInt(bytes(" 123\t"), 0, 5), is(123));
+		assertThat(Calculator.parseInt(bytes("x-42y"), 1, 4), is(-42));
+		assertThat(Calculator.parseInt(bytes("2147483647"), 0, 10), is(Integer.MAX_VALUE));
+		assertThat(Calculator.parseInt(bytes("-2147483648"), 0, 11), is(Integer.MIN_VALUE));
+	}
+	
+	@Test(expected=NumberFormatException.class)
+	public void parseIntOverflow() {
+		Calculator.parseInt(bytes("2147483648"), 0, 10);
+	}
+	
+	private ByteBuffer bytes(String s) {
+		return ByteBuffer.wrap(s.getBytes(StandardCharsets.US_ASCII));
+	}
 }
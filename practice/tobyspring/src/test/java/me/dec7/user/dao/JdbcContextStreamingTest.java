@@ -0,0 +1,79 @@
+package me.dec7.user.dao;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import me.dec7.user.domain.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.util.FileSystemUtils;
+
+
+/*
+ * 백만 row를 List로 모으면 User 객체만으로 수백 MB가 필요함
+ * 	- pom.xml의 streaming-test execution으로 이 test만 작은 heap(-Xmx64m)에서 실행
+ * 	- 테이블도 heap에 올라가지 않도록 메모리 DB가 아닌 파일 DB 사용
+ * 	- 대량 insert가 느리지 않도록 page store를 쓰고 log는 끔
+ */
+public class JdbcContextStreamingTest {
+	
+	private static final int ROWS = 1000000;
+	
+	private File dbDir;
+	private JdbcContext jdbcContext;
+	
+	@Before
+	public void setUp() throws IOException, SQLException {
+		dbDir = File.createTempFile("streaming", "");
+		dbDir.delete();
+		dbDir.mkdirs();
+		
+		DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:" + new File(dbDir, "users").getAbsolutePath() + ";MV_STORE=FALSE;LOG=0;UNDO_LOG=0", "sa", "");
+		
+		jdbcContext = new JdbcContext();
+		jdbcContext.setDataSource(dataSource);
+		/*
+		 * H2는 기본값 Integer.MIN_VALUE(MySQL streaming)를 받지 않음
+		 */
+		jdbcContext.setFetchSize(500);
+		jdbcContext.executeSql("create table users (id varchar(10) primary key, name varchar(20) not null, password varchar(10) not null)");
+		jdbcContext.executeSql("insert into users select 'u' || x, 'user' || x, 'p' || x from system_range(1, " + ROWS + ")");
+	}
+	
+	@After
+	public void tearDown() throws SQLException {
+		jdbcContext.executeSql("shutdown");
+		FileSystemUtils.deleteRecursively(dbDir);
+	}
+	
+	@Test
+	public void exportMillionRows() throws SQLException {
+		final long[] nameLength = new long[1];
+		
+		int rows = jdbcContext.query("select id, name, password from users", new RowCallback() {
+			
+			@Override
+			public void processRow(ResultSet rs) throws SQLException {
+				User user = new User(rs.getString(1), rs.getString(2), rs.getString(3));
+				
+				nameLength[0] += user.getName().length();
+			}
+			
+		});
+		
+		assertThat(rows, is(ROWS));
+		/*
+		 * "user1" ~ "user1000000"의 길이 합
+		 */
+		assertThat(nameLength[0], is(4L * ROWS + 5888896L));
+	}
+	
+}
@@ -0,0 +1,261 @@
+package me.dec7.user.dao;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import me.dec7.user.domain.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+public class JdbcContextTest {
+
+	private DriverManagerDataSource dataSource;
+	private JdbcContext jdbcContext;
+
+	@Before
+	public void setUp() throws SQLException {
+		dataSource = new DriverManagerDataSource("jdbc:h2:mem:jdbccontext;DB_CLOSE_DELAY=-1", "sa", "");
+
+		jdbcContext = new JdbcContext();
+		jdbcContext.setDataSource(dataSource);
+		jdbcContext.executeSql("create table users (id varchar(10) primary key, name varchar(20) not null, password varchar(10) not null)");
+	}
+
+	@After
+	public void tearDown() throws SQLException {
+		jdbcContext.executeSql("drop table users");
+	}
+
+	@Test
+	public void addOne() throws SQLException {
+		jdbcContext.workWithStatementStrategy(new AddStatement(new User("gyumee", "박성철", "springno1")));
+
+		assertThat(getCount(), is(1));
+	}
+
+	@Test
+	public void addBatch() throws SQLException {
+		/*
+		 * batchSize 1000으로 2500건 → executeBatch() 3번, 마지막은 500건
+		 */
+		List<User> users = createUsers(2500);
+
+		int[] updateCounts = jdbcContext.workWithBatchStatementStrategy(new AddStatement(users));
+
+		assertThat(updateCounts.length, is(2500));
+		for (int updateCount : updateCounts) {
+			assertThat(updateCount, is(1));
+		}
+		assertThat(getCount(), is(2500));
+	}
+
+	@Test
+	public void batchSize() throws SQLException {
+		/*
+		 * executeBatch()가 몇 건씩 호출되는지 proxy로 기록
+		 */
+		final List<Integer> batches = new ArrayList<Integer>();
+
+		jdbcContext.setBatchSize(3);
+		jdbcContext.workWithBatchStatementStrategy(new AddStatement(createUsers(7)) {
+
+			@Override
+			public PreparedStatement makeBatchStatement(Connection c) throws SQLException {
+				final PreparedStatement ps = super.makeBatchStatement(c);
+
+				return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+						new Class<?>[] { PreparedStatement.class }, new InvocationHandler() {
+
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+						Object result = method.invoke(ps, args);
+						if (method.getName().equals("executeBatch")) {
+							batches.add(((int[]) result).length);
+						}
+
+						return result;
+					}
+
+				});
+			}
+
+		});
+
+		assertThat(batches, is(Arrays.asList(3, 3, 1)));
+		assertThat(getCount(), is(7));
+	}
+
+	@Test
+	public void rollbackWhenBatchFails() throws SQLException {
+		/*
+		 * 중간에 중복 키가 있으면 앞에서 실행된 batch까지 전부 rollback
+		 */
+		List<User> users = createUsers(10);
+		users.add(users.get(0));
+
+		List<String> calls = new ArrayList<String>();
+		jdbcContext.setDataSource(recordingDataSource(calls));
+		jdbcContext.setBatchSize(4);
+		try {
+			jdbcContext.workWithBatchStatementStrategy(new AddStatement(users));
+			fail();
+
+		} catch (SQLException sqle) { }
+
+		assertThat(getCount(), is(0));
+		/*
+		 * batch에 쓴 connection을 autoCommit으로 되돌린 뒤 닫음
+		 */
+		assertThat(calls, is(Arrays.asList("close autoCommit=true")));
+	}
+
+	@Test
+	public void rollbackWhenBatchThrowsRuntimeException() throws SQLException {
+		/*
+		 * setValues()에서 RuntimeException이 나도 앞에서 실행된 batch까지 전부 rollback
+		 */
+		List<User> users = createUsers(10);
+		users.add(null);
+
+		List<String> calls = new ArrayList<String>();
+		jdbcContext.setDataSource(recordingDataSource(calls));
+		jdbcContext.setBatchSize(4);
+		try {
+			jdbcContext.workWithBatchStatementStrategy(new AddStatement(users));
+			fail();
+
+		} catch (NullPointerException e) { }
+
+		assertThat(getCount(), is(0));
+		/*
+		 * batch에 쓴 connection을 autoCommit으로 되돌린 뒤 닫음
+		 */
+		assertThat(calls, is(Arrays.asList("close autoCommit=true")));
+	}
+
+	@Test
+	public void streamingQuery() throws SQLException {
+		/*
+		 * MySQL이 streaming 하는 조건(TYPE_FORWARD_ONLY, CONCUR_READ_ONLY, fetch size Integer.MIN_VALUE)으로 조회하는지 기록
+		 */
+		List<String> calls = new ArrayList<String>();
+		jdbcContext.setDataSource(recordingDataSource(calls));
+
+		jdbcContext.query("select id, name, password from users", new RowCallback() {
+
+			@Override
+			public void processRow(ResultSet rs) throws SQLException { }
+
+		});
+
+		assertThat(calls, is(Arrays.asList(
+				"prepareStatement " + ResultSet.TYPE_FORWARD_ONLY + " " + ResultSet.CONCUR_READ_ONLY,
+				"setFetchSize " + Integer.MIN_VALUE,
+				"close autoCommit=true")));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void invalidBatchSize() {
+		jdbcContext.setBatchSize(0);
+	}
+
+	@Test
+	public void emptyBatch() throws SQLException {
+		int[] updateCounts = jdbcContext.workWithBatchStatementStrategy(new AddStatement(Arrays.<User>asList()));
+
+		assertThat(updateCounts.length, is(0));
+		assertThat(getCount(), is(0));
+	}
+
+	private List<User> createUsers(int count) {
+		List<User> users = new ArrayList<User>();
+		for (int i = 0; i < count; i++) {
+			users.add(new User("u" + i, "user" + i, "p" + i));
+		}
+
+		return users;
+	}
+
+	/*
+	 * dataSource와 같은 DB를 쓰면서 connection, statement에 대한 호출과 닫을 때의 autoCommit을 기록
+	 * 	- H2는 음수 fetch size를 받지 않으므로 setFetchSize()는 기록만 하고 넘기지 않음
+	 */
+	private DataSource recordingDataSource(final List<String> calls) {
+		return new DriverManagerDataSource(dataSource.getUrl(), "sa", "") {
+
+			@Override
+			public Connection getConnection() throws SQLException {
+				final Connection c = super.getConnection();
+
+				return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+						new Class<?>[] { Connection.class }, new InvocationHandler() {
+
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+						if (method.getName().equals("prepareStatement") && args.length == 3) {
+							calls.add("prepareStatement " + args[1] + " " + args[2]);
+
+							return recordingStatement((PreparedStatement) method.invoke(c, args), calls);
+						}
+
+						if (method.getName().equals("close")) {
+							calls.add("close autoCommit=" + c.getAutoCommit());
+						}
+
+						return method.invoke(c, args);
+					}
+
+				});
+			}
+
+		};
+	}
+
+	private PreparedStatement recordingStatement(final PreparedStatement ps, final List<String> calls) {
+		return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { PreparedStatement.class }, new InvocationHandler() {
+
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				if (method.getName().equals("setFetchSize")) {
+					calls.add("setFetchSize " + args[0]);
+
+					return null;
+				}
+
+				return method.invoke(ps, args);
+			}
+
+		});
+	}
+
+	private int getCount() throws SQLException {
+		Connection c = dataSource.getConnection();
+		try {
+			ResultSet rs = c.createStatement().executeQuery("select count(*) from users");
+			rs.next();
+
+			return rs.getInt(1);
+
+		} finally {
+			c.close();
+		}
+	}
+
+}
@@ -0,0 +1,121 @@
+package me.dec7.user.dao;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PooledDataSourceTest {
+	
+	private PooledDataSource dataSource;
+	private CountingConnectionMaker countingConnectionMaker;
+	
+	@Before
+	public void setUp() {
+		/*
+		 * 실제 connection은 H2 메모리 DB로 만들고
+		 * CountingConnectionMaker로 물리 connection을 몇 번 만들었는지 셈
+		 */
+		countingConnectionMaker = new CountingConnectionMaker(new ConnectionMaker() {
+
+			@Override
+			public Connection makeConnection() throws ClassNotFoundException, SQLException {
+				return DriverManager.getConnection("jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1", "sa", "");
+			}
+			
+		});
+		
+		dataSource = new PooledDataSource();
+		dataSource.setConnectionMaker(countingConnectionMaker);
+		dataSource.setMinSize(1);
+		dataSource.setMaxSize(2);
+		dataSource.setMaxWaitMillis(100);
+	}
+	
+	@After
+	public void tearDown() {
+		dataSource.close();
+	}
+	
+	@Test
+	public void reuseConnection() throws SQLException {
+		for (int i = 0; i < 10; i++) {
+			Connection c = dataSource.getConnection();
+			c.createStatement().execute("select 1");
+			c.close();
+		}
+		
+		assertThat(countingConnectionMaker.getCounter(), is(1));
+		assertThat(dataSource.getBorrowCount(), is(10L));
+		assertThat(dataSource.getIdleCount(), is(1));
+		assertThat(dataSource.getActiveCount(), is(0));
+	}
+	
+	@Test
+	public void closedHandleCannotBeUsed() throws SQLException {
+		Connection c = dataSource.getConnection();
+		c.close();
+		c.close();
+		
+		assertThat(c.isClosed(), is(true));
+		try {
+			c.createStatement();
+			fail();
+		} catch (SQLException expected) { }
+	}
+	
+	@Test
+	public void waitAndTimeout() throws SQLException {
+		Connection c1 = dataSource.getConnection();
+		Connection c2 = dataSource.getConnection();
+		
+		try {
+			dataSource.getConnection();
+			fail();
+		} catch (SQLException expected) { }
+		
+		assertThat(dataSource.getWaitCount(), is(1L));
+		assertThat(dataSource.getTimeoutCount(), is(1L));
+		assertThat(dataSource.getMaxWaitMillis() >= 100, is(true));
+		
+		c1.close();
+		c2.close();
+		assertThat(countingConnectionMaker.getCounter(), is(2));
+	}
+	
+	@Test
+	public void discardInvalidConnection() throws SQLException {
+		Connection c = dataSource.getConnection();
+		Connection physical = c.unwrap(org.h2.jdbc.JdbcConnection.class);
+		c.close();
+		
+		// pool에 있는 동안 물리 connection이 끊어진 상황
+		physical.close();
+		
+		Connection fresh = dataSource.getConnection();
+		fresh.createStatement().execute("select 1");
+		fresh.close();
+		
+		assertThat(dataSource.getInvalidCount(), is(1L));
+		assertThat(countingConnectionMaker.getCounter(), is(2));
+	}
+	
+	@Test
+	public void detectLeak() throws Exception {
+		dataSource.setLeakDetectionThresholdMillis(10);
+		
+		Connection c = dataSource.getConnection();
+		Thread.sleep(30);
+		
+		assertThat(dataSource.detectLeaks().size(), is(1));
+		assertThat(dataSource.detectLeaks().size(), is(0));
+		assertThat(dataSource.getLeakCount(), is(1L));
+		c.close();
+	}
+}
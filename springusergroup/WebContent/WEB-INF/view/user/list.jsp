@@ -40,6 +40,8 @@
 			</tr>
 			</c:forEach>
 		</table>
+		<c:if test="${!firstPage}"><a href="list">[ó]</a></c:if>
+		<c:if test="${not empty nextAfter}"><a href="list?after=${nextAfter}">[]</a></c:if>
 	</div>
 	
 </div>
@@ -1,8 +1,12 @@
 package springbook.sug.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface GenericDao<T> {
+	int FIRST_PAGE = 0;
+	
 	T add(T entity);
 
 	T update(T entity);
@@ -11,11 +15,18 @@ public interface GenericDao<T> {
 
 	T get(int id);
 
+	Map<Integer, T> get(Collection<Integer> ids);
+
 	List<T> search(String name);
+
+	// newest first, ids below lastId; FIRST_PAGE for the first page
+	List<T> searchAfter(String name, int lastId, int limit);
 	
 	int deleteAll();
 
 	List<T> getAll();
+
+	List<T> getAllAfter(int lastId, int limit);
 	
 	long count();
 }
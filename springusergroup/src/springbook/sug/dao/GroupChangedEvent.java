@@ -0,0 +1,12 @@
+package springbook.sug.dao;
+
+import org.springframework.context.ApplicationEvent;
+
+// published by GroupDao after groups were added, changed or removed
+public class GroupChangedEvent extends ApplicationEvent {
+	private static final long serialVersionUID = 1L;
+
+	public GroupChangedEvent(GroupDao source) {
+		super(source);
+	}
+}
@@ -1,21 +1,41 @@
 package springbook.sug.dao;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import javax.annotation.PostConstruct;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
-import javax.persistence.Query;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 
 import springbook.sug.domain.Group;
+import springbook.sug.support.TrigramIndex;
 
 @Repository
 public class GroupDaoJpa implements GroupDao {
 	@PersistenceContext EntityManager em;
+	@Autowired ApplicationEventPublisher eventPublisher;
+	private final TrigramIndex nameIndex = new TrigramIndex();
+	
+	@PostConstruct
+	public void rebuildNameIndex() {
+		nameIndex.clear();
+		List<Object[]> rows = em.createQuery("select g.id, g.name from Group g", Object[].class).getResultList();
+		for (Object[] row : rows) {
+			nameIndex.put((Integer) row[0], (String) row[1]);
+		}
+	}
 	
 	public Group add(Group user) {
 		em.persist(user);
+		em.flush();
+		nameIndex.put(user.getId(), user.getName());
+		groupChanged();
 		return user;
 	}
 
@@ -25,9 +45,13 @@ public class GroupDaoJpa implements GroupDao {
 
 	public void delete(int id) {
 		em.remove(get(id));
+		nameIndex.remove(id);
+		groupChanged();
 	}
 
 	public int deleteAll() {
+		nameIndex.clear();
+		groupChanged();
 		return em.createQuery("delete from Group").executeUpdate();
 	}
 
@@ -35,17 +59,47 @@ public class GroupDaoJpa implements GroupDao {
 		return em.find(Group.class, id);
 	}
 
+	public Map<Integer, Group> get(Collection<Integer> ids) {
+		Map<Integer, Group> groups = new HashMap<Integer, Group>();
+		if (ids.isEmpty()) return groups;
+		
+		List<Group> result = em.createQuery("select g from Group g where g.id in :ids", Group.class)
+				.setParameter("ids", ids).getResultList();
+		for (Group group : result) {
+			groups.put(group.getId(), group);
+		}
+		return groups;
+	}
+
 	public List<Group> getAll() {
 		return em.createQuery("select g from Group g", Group.class).getResultList();
 	}
 
+	public List<Group> getAllAfter(int lastId, int limit) {
+		if (lastId == FIRST_PAGE) {
+			return em.createQuery("select g from Group g order by g.id desc", Group.class)
+					.setMaxResults(limit).getResultList();
+		}
+		return em.createQuery("select g from Group g where g.id < :lastId order by g.id desc", Group.class)
+				.setParameter("lastId", lastId).setMaxResults(limit).getResultList();
+	}
+
 	public List<Group> search(String name) {
-		Query query = em.createQuery("select g from Group g where g.name like :name", Group.class);
-		query.setParameter("name", "%" + name + "%");
-		return query.getResultList();
+		return IndexedSearch.fetch(this, nameIndex.search(name), FIRST_PAGE, Integer.MAX_VALUE);
+	}
+
+	public List<Group> searchAfter(String name, int lastId, int limit) {
+		return IndexedSearch.fetch(this, nameIndex.search(name), lastId, limit);
+	}
+
+	private void groupChanged() {
+		eventPublisher.publishEvent(new GroupChangedEvent(this));
 	}
 
 	public Group update(Group user) {
-		return em.merge(user);
+		groupChanged();
+		Group merged = em.merge(user);
+		nameIndex.put(merged.getId(), merged.getName());
+		return merged;
 	}
 }
@@ -0,0 +1,30 @@
+package springbook.sug.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import springbook.sug.support.BatchEntityLoader;
+
+class IndexedSearch {
+	// fetches the candidates of a TrigramIndex search in their order (newest first), skipping rows gone from the table
+	static <T> List<T> fetch(GenericDao<T> dao, int[] candidateIds, int lastId, int limit) {
+		List<T> result = new ArrayList<T>();
+		List<Integer> batch = new ArrayList<Integer>();
+		for (int i = 0; i < candidateIds.length && result.size() < limit; ) {
+			batch.clear();
+			for (; i < candidateIds.length && batch.size() < BatchEntityLoader.DEFAULT_BATCH_SIZE
+					&& batch.size() < limit - result.size(); i++) {
+				if (lastId == GenericDao.FIRST_PAGE || candidateIds[i] < lastId) batch.add(candidateIds[i]);
+			}
+			if (batch.isEmpty()) continue;
+
+			Map<Integer, T> entities = dao.get(batch);
+			for (Integer id : batch) {
+				T entity = entities.get(id);
+				if (entity != null) result.add(entity);
+			}
+		}
+		return result;
+	}
+}
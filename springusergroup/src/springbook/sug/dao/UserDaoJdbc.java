@@ -2,13 +2,19 @@ package springbook.sug.dao;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import javax.annotation.PostConstruct;
 import javax.sql.DataSource;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
 import org.springframework.jdbc.core.simple.SimpleJdbcTemplate;
 import org.springframework.stereotype.Repository;
@@ -16,8 +22,10 @@ import org.springframework.stereotype.Repository;
 import springbook.sug.domain.Group;
 import springbook.sug.domain.Type;
 import springbook.sug.domain.User;
+import springbook.sug.support.BatchEntityLoader;
 import springbook.sug.support.EntityProxyFactory;
 import springbook.sug.support.MappedBeanPropertySqlParameterSource;
+import springbook.sug.support.TrigramIndex;
 
 @Repository
 public class UserDaoJdbc implements UserDao {
@@ -25,8 +33,12 @@ public class UserDaoJdbc implements UserDao {
 	@Autowired private GroupDao groupDao;
 	private SimpleJdbcTemplate jdbcTemplate;
 	private SimpleJdbcInsert userInsert;
-	private RowMapper<User> rowMapper = 
-		new RowMapper<User>() {
+	private final TrigramIndex nameIndex = new TrigramIndex();
+	
+	// group proxies of one result set share a loader and are fetched together
+	private RowMapper<User> createRowMapper() {
+		final BatchEntityLoader<Group> groupLoader = new BatchEntityLoader<Group>(groupDao);
+		return new RowMapper<User>() {
 			public User mapRow(ResultSet rs, int rowNum) throws SQLException {
 				User user = new User();
 				user.setId(rs.getInt("id"));
@@ -35,7 +47,7 @@ public class UserDaoJdbc implements UserDao {
 				user.setPassword(rs.getString("password"));
 				user.setType(Type.valueOf(rs.getInt("type")));
 				user.setGroup(UserDaoJdbc.this.entityProxyFactory.createProxy(
-							Group.class, groupDao, rs.getInt("groupid")));
+							Group.class, groupLoader, rs.getInt("groupid")));
 				user.setCreated(rs.getDate("created"));
 				user.setModified(rs.getDate("modified"));
 				user.setLogins(rs.getInt("logins"));
@@ -43,6 +55,7 @@ public class UserDaoJdbc implements UserDao {
 				return user;
 			}
 		};
+	}
 
 	@Autowired
 	public void init(DataSource dataSource) {
@@ -52,10 +65,21 @@ public class UserDaoJdbc implements UserDao {
 						.usingGeneratedKeyColumns("id");
 	}
 
+	@PostConstruct
+	public void rebuildNameIndex() {
+		this.nameIndex.clear();
+		this.jdbcTemplate.getJdbcOperations().query("select id, name from users", new RowCallbackHandler() {
+			public void processRow(ResultSet rs) throws SQLException {
+				nameIndex.put(rs.getInt("id"), rs.getString("name"));
+			}
+		});
+	}
+
 	public User add(User user) {
 		int generatedId = this.userInsert.executeAndReturnKey(
 				new UserBeanPropertySqlParameterSource(user)).intValue();
 		user.setId(generatedId);
+		this.nameIndex.put(generatedId, user.getName());
 		return user;
 	}
 	
@@ -72,35 +96,63 @@ public class UserDaoJdbc implements UserDao {
 				"logins = :logins " +
 				"where id = :id",
 				new UserBeanPropertySqlParameterSource(user));
+		if (affected > 0) this.nameIndex.put(user.getId(), user.getName());
 		return user;
 	}
 	
 	public void delete(int id) {
 		this.jdbcTemplate.update("delete from users where id = ?", id);
+		this.nameIndex.remove(id);
 	}
 	
 	public int deleteAll() {
+		this.nameIndex.clear();
 		return this.jdbcTemplate.update("delete from users");
 	}
 	
 	public User get(int id) {
 		try {
 		return this.jdbcTemplate.queryForObject("select * from users where id = ?", 
-				this.rowMapper, id);
+				createRowMapper(), id);
 		}
 		catch(EmptyResultDataAccessException e) {
 			return null;
 		}
 	}
 
+	public Map<Integer, User> get(Collection<Integer> ids) {
+		Map<Integer, User> users = new HashMap<Integer, User>();
+		if (ids.isEmpty()) return users;
+		
+		List<User> result = this.jdbcTemplate.query("select * from users where id in (:ids)", 
+				createRowMapper(), new MapSqlParameterSource("ids", ids));
+		for (User user : result) {
+			users.put(user.getId(), user);
+		}
+		return users;
+	}
+
+	// name like '%name%' can't use an index, so candidates come from the trigram index and rows by id
 	public List<User> search(String name) {
-		return this.jdbcTemplate.query("select * from users where name like ?", 
-				this.rowMapper, "%" + name + "%");
+		return IndexedSearch.fetch(this, this.nameIndex.search(name), FIRST_PAGE, Integer.MAX_VALUE);
+	}
+	
+	public List<User> searchAfter(String name, int lastId, int limit) {
+		return IndexedSearch.fetch(this, this.nameIndex.search(name), lastId, limit);
 	}
 	
 	public List<User> getAll() {
 		return this.jdbcTemplate.query("select * from users order by id desc", 
-				this.rowMapper);
+				createRowMapper());
+	}
+	
+	public List<User> getAllAfter(int lastId, int limit) {
+		if (lastId == FIRST_PAGE) {
+			return this.jdbcTemplate.query("select * from users order by id desc limit ?", 
+					createRowMapper(), limit);
+		}
+		return this.jdbcTemplate.query("select * from users where id < ? order by id desc limit ?", 
+				createRowMapper(), lastId, limit);
 	}
 
 	public long count() {
@@ -118,7 +170,7 @@ public class UserDaoJdbc implements UserDao {
 	public User findUser(String username) {
 		try {
 		return this.jdbcTemplate.queryForObject("select * from users where username = ?", 
-				this.rowMapper, username);
+				createRowMapper(), username);
 		}
 		catch(EmptyResultDataAccessException e) {
 			return null;
@@ -0,0 +1,117 @@
+package springbook.sug.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import springbook.sug.dao.GroupChangedEvent;
+import springbook.sug.dao.GroupDao;
+import springbook.sug.domain.Group;
+
+@Service
+public class GroupCatalog implements ApplicationListener<GroupChangedEvent> {
+	private GroupDao groupDao;
+	private final AtomicLong version = new AtomicLong();
+	private volatile Snapshot snapshot;
+
+	@Autowired
+	public void setGroupDao(GroupDao groupDao) {
+		this.groupDao = groupDao;
+	}
+
+	public List<Group> getAll() {
+		Snapshot current = current();
+		if (current == null) return groupDao.getAll();
+		
+		List<Group> groups = new ArrayList<Group>(current.groups.size());
+		for (Group group : current.groups) groups.add(copy(group));
+		return groups;
+	}
+
+	public Group get(int id) {
+		Snapshot current = current();
+		Group group = (current == null) ? null : current.groupsById.get(id);
+		return (group == null) ? groupDao.get(id) : copy(group);
+	}
+
+	public long getVersion() {
+		return version.get();
+	}
+
+	public void onApplicationEvent(GroupChangedEvent event) {
+		invalidate();
+	}
+
+	// called on every group write; invalidated again when the writing transaction completes
+	public void invalidate() {
+		version.incrementAndGet();
+		snapshot = null;
+		if (TransactionSynchronizationManager.isSynchronizationActive() 
+				&& !TransactionSynchronizationManager.hasResource(this)) {
+			InvalidateOnCompletion synchronization = new InvalidateOnCompletion();
+			TransactionSynchronizationManager.bindResource(this, synchronization);
+			TransactionSynchronizationManager.registerSynchronization(synchronization);
+		}
+	}
+
+	// null inside a transaction that changed groups, so it sees its own uncommitted changes
+	private Snapshot current() {
+		if (TransactionSynchronizationManager.hasResource(this)) return null;
+		
+		long currentVersion = version.get();
+		Snapshot current = snapshot;
+		if (current != null && current.version == currentVersion) return current;
+		
+		current = new Snapshot(currentVersion, groupDao.getAll());
+		if (version.get() == currentVersion) snapshot = current;
+		return current;
+	}
+
+	private static Group copy(Group group) {
+		return new Group(group.getId(), group.getName());
+	}
+
+	private static class Snapshot {
+		final long version;
+		final List<Group> groups;
+		final Map<Integer, Group> groupsById;
+
+		Snapshot(long version, List<Group> loaded) {
+			this.version = version;
+			List<Group> groups = new ArrayList<Group>(loaded.size());
+			Map<Integer, Group> groupsById = new HashMap<Integer, Group>();
+			for (Group group : loaded) {
+				Group copy = copy(group);
+				groups.add(copy);
+				groupsById.put(copy.getId(), copy);
+			}
+			this.groups = Collections.unmodifiableList(groups);
+			this.groupsById = groupsById;
+		}
+	}
+
+	private class InvalidateOnCompletion extends TransactionSynchronizationAdapter {
+		public void suspend() {
+			TransactionSynchronizationManager.unbindResourceIfPossible(GroupCatalog.this);
+		}
+
+		public void resume() {
+			TransactionSynchronizationManager.bindResource(GroupCatalog.this, this);
+		}
+
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(GroupCatalog.this);
+			version.incrementAndGet();
+			snapshot = null;
+		}
+	}
+}
@@ -7,5 +7,6 @@ import springbook.sug.domain.User;
 public interface UserService extends GenericService<User> {
 	User findUser(String username);
 	List<User> getAll();
+	List<User> getAllAfter(int lastId, int limit);
 	void login(User user);
 }
@@ -46,6 +46,10 @@ public class UserServiceImpl implements UserService {
 		return this.userDao.getAll();
 	}
 
+	public List<User> getAllAfter(int lastId, int limit) {
+		return this.userDao.getAllAfter(lastId, limit);
+	}
+
 	public void login(User user) {
 		user.logIn();
 		this.userDao.update(user);
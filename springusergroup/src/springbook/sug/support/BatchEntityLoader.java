@@ -0,0 +1,59 @@
+package springbook.sug.support;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import springbook.sug.dao.GenericDao;
+
+public class BatchEntityLoader<T> {
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+	
+	private final GenericDao<T> dao;
+	private final int batchSize;
+	private final Set<Integer> pendingIds = new LinkedHashSet<Integer>();
+	private final Map<Integer, T> loaded = new HashMap<Integer, T>();
+	private int queryCount;
+	
+	public BatchEntityLoader(GenericDao<T> dao) {
+		this(dao, DEFAULT_BATCH_SIZE);
+	}
+
+	public BatchEntityLoader(GenericDao<T> dao, int batchSize) {
+		this.dao = dao;
+		this.batchSize = batchSize;
+	}
+
+	public synchronized void register(int id) {
+		if (!loaded.containsKey(id)) pendingIds.add(id);
+	}
+
+	// the first touch loads every id registered so far, batchSize ids per query
+	public synchronized T get(int id) {
+		if (!loaded.containsKey(id)) {
+			pendingIds.add(id);
+			loadPending();
+		}
+		return loaded.get(id);
+	}
+	
+	public synchronized int getQueryCount() {
+		return queryCount;
+	}
+
+	private void loadPending() {
+		List<Integer> ids = new ArrayList<Integer>(pendingIds);
+		pendingIds.clear();
+		for (int from = 0; from < ids.size(); from += batchSize) {
+			List<Integer> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+			Map<Integer, T> entities = dao.get(batch);
+			queryCount++;
+			for (Integer id : batch) {
+				loaded.put(id, entities.get(id));
+			}
+		}
+	}
+}
@@ -1,33 +1,105 @@
 package springbook.sug.support;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import net.sf.cglib.proxy.Callback;
+import net.sf.cglib.proxy.CallbackFilter;
 import net.sf.cglib.proxy.Enhancer;
-import net.sf.cglib.proxy.MethodInterceptor;
-import net.sf.cglib.proxy.MethodProxy;
+import net.sf.cglib.proxy.Factory;
+import net.sf.cglib.proxy.FixedValue;
+import net.sf.cglib.proxy.LazyLoader;
 import springbook.sug.dao.GenericDao;
 
 public class CglibEntityProxyFactory implements EntityProxyFactory {
-	@SuppressWarnings("unchecked")
+	private static final int ID_CALLBACK = 0;
+	private static final int ENTITY_CALLBACK = 1;
+
+	// getId() is routed to the FixedValue callback when the class is generated, not on every call
+	private static final CallbackFilter ID_GETTER_FILTER = new CallbackFilter() {
+		public int accept(Method method) {
+			return isIdGetter(method) ? ID_CALLBACK : ENTITY_CALLBACK;
+		}
+	};
+
+	private final ConcurrentMap<Class<?>, Factory> prototypes = new ConcurrentHashMap<Class<?>, Factory>();
+
 	public <T> T createProxy(Class<T> clazz, final GenericDao<T> dao, final int id) {
+		return newProxy(clazz, id, new LazyLoader() {
+			public Object loadObject() {
+				return dao.get(id);
+			}
+		});
+	}
+
+	public <T> T createProxy(Class<T> clazz, final BatchEntityLoader<T> loader, final int id) {
+		loader.register(id);
+
+		return newProxy(clazz, id, new LazyLoader() {
+			public Object loadObject() {
+				return loader.get(id);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T newProxy(Class<T> clazz, final int id, LazyLoader entityLoader) {
+		Callback[] callbacks = new Callback[2];
+		callbacks[ID_CALLBACK] = new FixedValue() {
+			public Object loadObject() {
+				return id;
+			}
+		};
+		callbacks[ENTITY_CALLBACK] = entityLoader;
+
+		return (T) prototype(clazz).newInstance(callbacks);
+	}
+
+	private Factory prototype(Class<?> clazz) {
+		Factory prototype = prototypes.get(clazz);
+		if (prototype == null) {
+			prototype = createPrototype(clazz);
+			Factory existing = prototypes.putIfAbsent(clazz, prototype);
+			if (existing != null) prototype = existing;
+		}
+		return prototype;
+	}
+
+	private Factory createPrototype(Class<?> clazz) {
 		Enhancer e = new Enhancer();
 		e.setSuperclass(clazz);
-		e.setCallback(new MethodInterceptor() {
-			private T entity;
-			public Object intercept(Object obj, Method method, Object[] args,
-					MethodProxy proxy) throws Throwable {
-				if (method.getName().equals("getId")) {
-					return id;
+		e.setCallbackTypes(new Class<?>[] { FixedValue.class, LazyLoader.class });
+		e.setCallbackFilter(ID_GETTER_FILTER);
+		Class<?> proxyClass = e.createClass();
+
+		Enhancer.registerCallbacks(proxyClass, new Callback[] {
+			new FixedValue() {
+				public Object loadObject() {
+					throw new IllegalStateException("prototype proxy");
 				}
-				else {
-					if (entity == null) {
-						entity = dao.get(id);
-					}
-					return proxy.invoke(entity, args);
+			},
+			new LazyLoader() {
+				public Object loadObject() {
+					throw new IllegalStateException("prototype proxy");
 				}
 			}
 		});
-		
-		return (T)e.create();
+		try {
+			return (Factory) proxyClass.newInstance();
+		}
+		catch (InstantiationException ex) {
+			throw new IllegalArgumentException("cannot create proxy for " + clazz.getName(), ex);
+		}
+		catch (IllegalAccessException ex) {
+			throw new IllegalArgumentException("cannot create proxy for " + clazz.getName(), ex);
+		}
+		finally {
+			Enhancer.registerCallbacks(proxyClass, null);
+		}
+	}
+
+	private static boolean isIdGetter(Method method) {
+		return method.getName().equals("getId") && method.getParameterTypes().length == 0;
 	}
 }
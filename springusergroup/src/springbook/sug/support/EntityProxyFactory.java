@@ -5,4 +5,6 @@ import springbook.sug.dao.GenericDao;
 
 public interface EntityProxyFactory {
 	<T> T createProxy(Class<T> clazz, GenericDao<T> dao, int id);
+
+	<T> T createProxy(Class<T> clazz, BatchEntityLoader<T> loader, int id);
 }
@@ -0,0 +1,270 @@
+package springbook.sug.support;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory trigram index of entity names, answering case-insensitive substring queries
+ * (the same as like '%name%') with candidate ids.
+ * Changes made inside a transaction are seen only by that transaction until it commits,
+ * the same as the rows they mirror, and are dropped if it rolls back.
+ */
+public class TrigramIndex {
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private Map<Integer, String> names = new HashMap<Integer, String>();
+	private Map<Long, Postings> postings = new HashMap<Long, Postings>();
+
+	public void put(int id, String name) {
+		PendingChanges pending = pendingChanges();
+		if (pending != null) {
+			pending.names.put(id, normalize(name));
+			return;
+		}
+
+		lock.writeLock().lock();
+		try {
+			putInternal(id, normalize(name));
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(int id) {
+		PendingChanges pending = pendingChanges();
+		if (pending != null) {
+			pending.names.put(id, null);
+			return;
+		}
+
+		lock.writeLock().lock();
+		try {
+			removeInternal(id);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void clear() {
+		PendingChanges pending = pendingChanges();
+		if (pending != null) {
+			pending.cleared = true;
+			pending.names.clear();
+			return;
+		}
+
+		lock.writeLock().lock();
+		try {
+			clearInternal();
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+		lock.readLock().lock();
+		try {
+			if (pending == null) return names.size();
+
+			int size = pending.cleared ? 0 : names.size();
+			for (Map.Entry<Integer, String> entry : pending.names.entrySet()) {
+				if (!pending.cleared && names.containsKey(entry.getKey())) size--;
+				if (entry.getValue() != null) size++;
+			}
+			return size;
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// ids whose name contains the query, largest id first
+	public int[] search(String query) {
+		String q = normalize(query);
+		int[] ids;
+		lock.readLock().lock();
+		try {
+			ids = searchInternal(q);
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+
+		// the current transaction's own changes replace what was committed for those ids
+		PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+		if (pending != null) ids = pending.overlay(ids, q);
+
+		Arrays.sort(ids);
+		for (int i = 0, j = ids.length - 1; i < j; i++, j--) {
+			int tmp = ids[i]; ids[i] = ids[j]; ids[j] = tmp;
+		}
+		return ids;
+	}
+
+	private int[] searchInternal(String q) {
+		Postings smallest = null;
+		if (q.length() >= 3) {
+			for (int i = 0; i + 3 <= q.length(); i++) {
+				Postings p = postings.get(trigram(q, i));
+				if (p == null) return new int[0];
+				if (smallest == null || p.size < smallest.size) smallest = p;
+			}
+		}
+
+		int[] ids;
+		int count = 0;
+		if (smallest != null) {
+			ids = new int[smallest.size];
+			for (int i = 0; i < smallest.size; i++) {
+				int id = smallest.ids[i];
+				if (names.get(id).contains(q)) ids[count++] = id;
+			}
+		}
+		else {
+			// shorter than a trigram: check every name, still without touching the database
+			ids = new int[names.size()];
+			for (Map.Entry<Integer, String> entry : names.entrySet()) {
+				if (entry.getValue().contains(q)) ids[count++] = entry.getKey();
+			}
+		}
+		return Arrays.copyOf(ids, count);
+	}
+
+	private void putInternal(int id, String name) {
+		removeInternal(id);
+		names.put(id, name);
+		for (long trigram : trigrams(name)) {
+			Postings p = postings.get(trigram);
+			if (p == null) {
+				p = new Postings();
+				postings.put(trigram, p);
+			}
+			p.add(id);
+		}
+	}
+
+	private void removeInternal(int id) {
+		String old = names.remove(id);
+		if (old == null) return;
+		for (long trigram : trigrams(old)) {
+			Postings p = postings.get(trigram);
+			p.remove(id);
+			if (p.size == 0) postings.remove(trigram);
+		}
+	}
+
+	private void clearInternal() {
+		names = new HashMap<Integer, String>();
+		postings = new HashMap<Long, Postings>();
+	}
+
+	private static String normalize(String name) {
+		return name == null ? "" : name.toLowerCase();
+	}
+
+	private static long[] trigrams(String name) {
+		if (name.length() < 3) return new long[0];
+		long[] trigrams = new long[name.length() - 2];
+		int count = 0;
+		for (int i = 0; i + 3 <= name.length(); i++) {
+			long trigram = trigram(name, i);
+			boolean duplicate = false;
+			for (int j = 0; j < count && !duplicate; j++) duplicate = trigrams[j] == trigram;
+			if (!duplicate) trigrams[count++] = trigram;
+		}
+		return Arrays.copyOf(trigrams, count);
+	}
+
+	private static long trigram(String s, int i) {
+		return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+	}
+
+	// null outside a transaction: the change is applied right away
+	private PendingChanges pendingChanges() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) return null;
+
+		PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+		if (pending == null) {
+			pending = new PendingChanges();
+			TransactionSynchronizationManager.bindResource(this, pending);
+			TransactionSynchronizationManager.registerSynchronization(pending);
+		}
+		return pending;
+	}
+
+	private static class Postings {
+		int[] ids = new int[4];
+		int size;
+
+		void add(int id) {
+			if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+			ids[size++] = id;
+		}
+
+		void remove(int id) {
+			for (int i = size - 1; i >= 0; i--) {
+				if (ids[i] == id) {
+					ids[i] = ids[--size];
+					return;
+				}
+			}
+		}
+	}
+
+	// changes of one transaction, applied to the shared index only when it commits
+	private class PendingChanges extends TransactionSynchronizationAdapter {
+		boolean cleared;
+		// latest normalized name of each changed id; null if removed
+		final Map<Integer, String> names = new HashMap<Integer, String>();
+
+		int[] overlay(int[] committedIds, String q) {
+			int[] ids = new int[committedIds.length + names.size()];
+			int count = 0;
+			if (!cleared) {
+				for (int id : committedIds) {
+					if (!names.containsKey(id)) ids[count++] = id;
+				}
+			}
+			for (Map.Entry<Integer, String> entry : names.entrySet()) {
+				if (entry.getValue() != null && entry.getValue().contains(q)) ids[count++] = entry.getKey();
+			}
+			return Arrays.copyOf(ids, count);
+		}
+
+		public void suspend() {
+			TransactionSynchronizationManager.unbindResourceIfPossible(TrigramIndex.this);
+		}
+
+		public void resume() {
+			TransactionSynchronizationManager.bindResource(TrigramIndex.this, this);
+		}
+
+		public void afterCommit() {
+			lock.writeLock().lock();
+			try {
+				if (cleared) clearInternal();
+				for (Map.Entry<Integer, String> entry : names.entrySet()) {
+					if (entry.getValue() == null) removeInternal(entry.getKey());
+					else putInternal(entry.getKey(), entry.getValue());
+				}
+			}
+			finally {
+				lock.writeLock().unlock();
+			}
+		}
+
+		// a rollback just drops the changes
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(TrigramIndex.this);
+		}
+	}
+}
@@ -19,7 +19,7 @@ import org.springframework.web.bind.support.SessionStatus;
 import springbook.sug.domain.Group;
 import springbook.sug.domain.Type;
 import springbook.sug.domain.User;
-import springbook.sug.service.GroupService;
+import springbook.sug.service.GroupCatalog;
 import springbook.sug.service.UserService;
 import springbook.sug.web.validator.UsernameValidator;
 
@@ -27,13 +27,13 @@ import springbook.sug.web.validator.UsernameValidator;
 @RequestMapping("/register")
 @SessionAttributes("user")
 public class RegisterController {
-	private GroupService groupService;
+	private GroupCatalog groupCatalog;
 	private UserService userService;
 	private UsernameValidator usernameValidator;
 	
 	@Autowired
-	public void init(GroupService groupService, UserService userService, UsernameValidator usernameValidator) {
-		this.groupService = groupService;
+	public void init(GroupCatalog groupCatalog, UserService userService, UsernameValidator usernameValidator) {
+		this.groupCatalog = groupCatalog;
 		this.userService = userService;
 		this.usernameValidator = usernameValidator;
 	}
@@ -45,7 +45,7 @@ public class RegisterController {
 	
 	@ModelAttribute
 	public List<Group> groups() {
-		return this.groupService.getAll(); 
+		return this.groupCatalog.getAll(); 
 	}
 	
 	@RequestMapping(method=RequestMethod.GET)
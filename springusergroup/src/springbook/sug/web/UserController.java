@@ -1,5 +1,7 @@
 package springbook.sug.web;
 
+import java.util.List;
+
 import javax.inject.Inject;
 import javax.inject.Provider;
 
@@ -9,7 +11,9 @@ import org.springframework.ui.ModelMap;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import springbook.sug.dao.GenericDao;
 import springbook.sug.domain.User;
 import springbook.sug.service.UserService;
 import springbook.sug.web.security.LoginInfo;
@@ -17,6 +21,8 @@ import springbook.sug.web.security.LoginInfo;
 @Controller
 @RequestMapping("/user")
 public class UserController {
+	public static final int PAGE_SIZE = 50;
+	
 	@Autowired 
 	private UserService userService;
 	@Inject 
@@ -28,13 +34,19 @@ public class UserController {
 	}
 
 	@RequestMapping("/list")
-	public String list(ModelMap model) {
-		model.addAttribute(this.userService.getAll());
+	public String list(@RequestParam(value="after", defaultValue="0") int after, ModelMap model) {
+		List<User> users = this.userService.getAllAfter(after, PAGE_SIZE + 1);
+		if (users.size() > PAGE_SIZE) {
+			users = users.subList(0, PAGE_SIZE);
+			model.addAttribute("nextAfter", users.get(PAGE_SIZE - 1).getId());
+		}
+		model.addAttribute("userList", users);
+		model.addAttribute("firstPage", after == GenericDao.FIRST_PAGE);
 		return "user/list";
 	}
 	
 	@RequestMapping("/view/{id}")
-	public String list(@PathVariable int id, ModelMap model) {
+	public String view(@PathVariable int id, ModelMap model) {
 		model.addAttribute(this.userService.get(id));
 		model.addAttribute("id", id);
 		return "user/view";
@@ -22,7 +22,7 @@ import org.springframework.web.bind.support.SessionStatus;
 import springbook.sug.domain.Group;
 import springbook.sug.domain.Type;
 import springbook.sug.domain.User;
-import springbook.sug.service.GroupService;
+import springbook.sug.service.GroupCatalog;
 import springbook.sug.service.UserService;
 import springbook.sug.web.security.LoginInfo;
 import springbook.sug.web.validator.UsernameValidator;
@@ -31,14 +31,14 @@ import springbook.sug.web.validator.UsernameValidator;
 @RequestMapping("/user/edit/{id}")
 @SessionAttributes("user")
 public class UserEditController {
-	private GroupService groupService;
+	private GroupCatalog groupCatalog;
 	private UserService userService;
 	private UsernameValidator usernameValidator;
 	private @Inject Provider<LoginInfo> loginInfoProvider;
 	
 	@Autowired
-	public void init(GroupService groupService, UserService userService, UsernameValidator usernameValidator) {
-		this.groupService = groupService;
+	public void init(GroupCatalog groupCatalog, UserService userService, UsernameValidator usernameValidator) {
+		this.groupCatalog = groupCatalog;
 		this.userService = userService;
 		this.usernameValidator = usernameValidator;
 	}
@@ -50,7 +50,7 @@ public class UserEditController {
 	
 	@ModelAttribute
 	public List<Group> groups() {
-		return this.groupService.getAll(); 
+		return this.groupCatalog.getAll(); 
 	}
 
 	@ModelAttribute
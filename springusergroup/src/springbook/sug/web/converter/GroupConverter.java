@@ -4,7 +4,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.convert.converter.Converter;
 
 import springbook.sug.domain.Group;
-import springbook.sug.service.GroupService;
+import springbook.sug.service.GroupCatalog;
 
 public class GroupConverter {
 	private GroupConverter() {}
@@ -16,15 +16,15 @@ public class GroupConverter {
 	}
 	
 	public static class StringToGroup implements Converter<String, Group> {
-		private GroupService groupService;
+		private GroupCatalog groupCatalog;
 		
 		@Autowired 
-		public void setGroupService(GroupService groupService) {
-			this.groupService = groupService;
+		public void setGroupCatalog(GroupCatalog groupCatalog) {
+			this.groupCatalog = groupCatalog;
 		}
 
 		public Group convert(String text) {
-			return groupService.get(Integer.valueOf(text));
+			return groupCatalog.get(Integer.valueOf(text));
 		}
 	}
 }
@@ -4,6 +4,10 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 
@@ -16,6 +20,7 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.transaction.annotation.Transactional;
 
 import springbook.sug.domain.Group;
+import springbook.sug.service.GroupCatalog;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @ContextConfiguration("/test-applicationContext.xml")
@@ -23,6 +28,7 @@ import springbook.sug.domain.Group;
 public class GroupDaoJpaTest {
 	@PersistenceContext EntityManager em; 
 	@Autowired GroupDao groupDao;
+	@Autowired GroupCatalog groupCatalog;
 	Group group1;
 	Group group2;
 	Group group3;
@@ -78,4 +84,49 @@ public class GroupDaoJpaTest {
 		assertThat(groupDao.search("up2").size(), is(2));
 		assertThat(groupDao.search("group").size(), is(3));
 	}
+	
+	@Test
+	public void getByIds() {
+		groupDao.deleteAll();
+		groupDao.add(group1);
+		groupDao.add(group2);
+		groupDao.add(group3);
+		
+		Map<Integer, Group> groups = groupDao.get(Arrays.asList(group1.getId(), group3.getId(), -1));
+		assertThat(groups.size(), is(2));
+		assertThat(groups.get(group1.getId()), is(group1));
+		assertThat(groups.get(group3.getId()), is(group3));
+	}
+	
+	@Test
+	public void catalogSeesWritesOfCurrentTransaction() {
+		groupDao.deleteAll();
+		groupDao.add(group1);
+		assertThat(groupCatalog.getAll().size(), is(1));
+		
+		groupDao.add(group2);
+		assertThat(groupCatalog.getAll().size(), is(2));
+		assertThat(groupCatalog.get(group2.getId()), is(group2));
+	}
+	
+	@Test
+	public void pages() {
+		groupDao.deleteAll();
+		groupDao.add(group1);
+		groupDao.add(group2);
+		groupDao.add(group3);
+		
+		List<Group> page1 = groupDao.getAllAfter(GroupDao.FIRST_PAGE, 2);
+		assertThat(page1.size(), is(2));
+		assertThat(page1.get(0), is(group3));
+		assertThat(page1.get(1), is(group2));
+		List<Group> page2 = groupDao.getAllAfter(group2.getId(), 2);
+		assertThat(page2.size(), is(1));
+		assertThat(page2.get(0), is(group1));
+		
+		List<Group> searched = groupDao.searchAfter("up2", GroupDao.FIRST_PAGE, 1);
+		assertThat(searched.size(), is(1));
+		assertThat(searched.get(0), is(group3));
+		assertThat(groupDao.searchAfter("up2", group3.getId(), 10).get(0), is(group2));
+	}
 }
@@ -4,8 +4,11 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 
+import java.util.Arrays;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Map;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
@@ -110,6 +113,72 @@ public class UserDaoJdbcTest {
 		assertThat(userDao.findUser("asdf1234"), is(nullValue()));
 	}
 
+	@Test
+	public void getByIds() {
+		init();
+		userDao.add(user1);
+		userDao.add(user2);
+		userDao.add(user3);
+		
+		Map<Integer, User> users = userDao.get(Arrays.asList(user1.getId(), user3.getId(), -1));
+		assertThat(users.size(), is(2));
+		compareUserProperties(user1, users.get(user1.getId()));
+		compareUserProperties(user3, users.get(user3.getId()));
+	}
+	
+	@Test
+	public void groupsOfList() {
+		init();
+		userDao.add(user1);
+		userDao.add(user2);
+		userDao.add(user3);
+		
+		List<User> users = userDao.getAll();
+		assertThat(users.size(), is(3));
+		for (User user : users) {
+			assertThat(user.getGroup().getName(), is(user.getId() == user1.getId() ? "group1" : "group2"));
+		}
+	}
+
+	@Test
+	public void pages() {
+		init();
+		userDao.add(user1);
+		userDao.add(user2);
+		userDao.add(user3);
+		
+		List<User> page1 = userDao.getAllAfter(UserDao.FIRST_PAGE, 2);
+		assertThat(page1.size(), is(2));
+		assertThat(page1.get(0), is(user3));
+		assertThat(page1.get(1), is(user2));
+		List<User> page2 = userDao.getAllAfter(page1.get(1).getId(), 2);
+		assertThat(page2.size(), is(1));
+		assertThat(page2.get(0), is(user1));
+		assertThat(userDao.getAllAfter(user1.getId(), 2).size(), is(0));
+		
+		List<User> searched = userDao.searchAfter("name", user3.getId(), 1);
+		assertThat(searched.size(), is(1));
+		assertThat(searched.get(0), is(user2));
+	}
+	
+	@Test
+	public void search() {
+		init();
+		userDao.add(user1);
+		userDao.add(user2);
+		userDao.add(user3);
+		
+		assertThat(userDao.search("abc").size(), is(0));
+		assertThat(userDao.search("ame2"), is(Arrays.asList(user2)));
+		assertThat(userDao.search("NAME"), is(Arrays.asList(user3, user2, user1)));
+		
+		user1.setName("modified1");
+		userDao.update(user1);
+		userDao.delete(user2.getId());
+		assertThat(userDao.search("name"), is(Arrays.asList(user3)));
+		assertThat(userDao.search("modified"), is(Arrays.asList(user1)));
+	}
+	
 	private void compareUserProperties(User u1, User u2) {
 		assertThat(u1.getId(), is(u2.getId()));
 		assertThat(u1.getName(), is(u2.getName()));
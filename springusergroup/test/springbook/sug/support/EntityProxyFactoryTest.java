@@ -3,7 +3,10 @@ package springbook.sug.support;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Test;
 
@@ -22,8 +25,50 @@ public class EntityProxyFactoryTest {
 		assertThat(mockGroupDao.called, is(true));
 	}
 	
+	@Test
+	public void createBatchCglibProxy() {
+		EntityProxyFactory ep = new CglibEntityProxyFactory(); 
+		GroupDaoImpl mockGroupDao = new GroupDaoImpl();
+		BatchEntityLoader<Group> loader = new BatchEntityLoader<Group>(mockGroupDao, 1000);
+		
+		Group[] groups = new Group[2500];
+		for (int i = 0; i < groups.length; i++) {
+			groups[i] = ep.createProxy(Group.class, loader, i % 1200 + 1);
+		}
+		assertThat(groups[0].getId(), is(1));
+		assertThat(mockGroupDao.batchCalls, is(0));
+		
+		assertThat(groups[0].getName(), is("name1"));
+		assertThat(mockGroupDao.batchCalls, is(2));
+		for (int i = 0; i < groups.length; i++) {
+			assertThat(groups[i].getName(), is("name" + (i % 1200 + 1)));
+		}
+		assertThat(mockGroupDao.batchCalls, is(2));
+		assertThat(loader.getQueryCount(), is(2));
+		assertThat(mockGroupDao.called, is(false));
+		
+		Group unregistered = ep.createProxy(Group.class, loader, 5000);
+		assertThat(unregistered.getName(), is("name5000"));
+		assertThat(mockGroupDao.batchCalls, is(3));
+	}
+	
+	@Test
+	public void reuseProxyClass() {
+		EntityProxyFactory ep = new CglibEntityProxyFactory(); 
+		GroupDaoImpl mockGroupDao = new GroupDaoImpl();
+		Group group1 = ep.createProxy(Group.class, mockGroupDao, 1);
+		Group group2 = ep.createProxy(Group.class, mockGroupDao, 2);
+		assertThat(group1.getClass() == group2.getClass(), is(true));
+		assertThat(group1.getId(), is(1));
+		assertThat(group2.getId(), is(2));
+		assertThat(group2.getName(), is("name2"));
+		assertThat(group1.getName(), is("name1"));
+		assertThat(group1.toString(), is("Group [id=1, name=name1]"));
+	}
+	
 	static class GroupDaoImpl implements GroupDao {
 		boolean called;
+		int batchCalls;
 		
 		public Group add(Group user) {
 			throw new UnsupportedOperationException();
@@ -46,14 +91,29 @@ public class EntityProxyFactoryTest {
 			return new Group(id, "name" + id);
 		}
 
+		public Map<Integer, Group> get(Collection<Integer> ids) {
+			batchCalls++;
+			Map<Integer, Group> groups = new HashMap<Integer, Group>();
+			for (Integer id : ids) groups.put(id, new Group(id, "name" + id));
+			return groups;
+		}
+
 		public List<Group> getAll() {
 			throw new UnsupportedOperationException();
 		}
 
+		public List<Group> getAllAfter(int lastId, int limit) {
+			throw new UnsupportedOperationException();
+		}
+
 		public List<Group> search(String name) {
 			throw new UnsupportedOperationException();
 		}
 
+		public List<Group> searchAfter(String name, int lastId, int limit) {
+			throw new UnsupportedOperationException();
+		}
+
 		public Group update(Group user) {
 			throw new UnsupportedOperationException();
 		}
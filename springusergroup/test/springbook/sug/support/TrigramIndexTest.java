@@ -0,0 +1,144 @@
+package springbook.sug.support;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class TrigramIndexTest {
+	@Test
+	public void search() {
+		TrigramIndex index = new TrigramIndex();
+		index.put(1, "group1");
+		index.put(2, "group2");
+		index.put(3, "group2-1");
+		index.put(4, "Spring Group");
+
+		assertThat(index.search("abc"), is(ids()));
+		assertThat(index.search("oup1"), is(ids(1)));
+		assertThat(index.search("up2"), is(ids(3, 2)));
+		assertThat(index.search("GROUP"), is(ids(4, 3, 2, 1)));
+		assertThat(index.search("g g"), is(ids(4)));
+		assertThat(index.search("-"), is(ids(3)));
+		assertThat(index.search(""), is(ids(4, 3, 2, 1)));
+		// every trigram matches but not in sequence
+		assertThat(index.search("group1-1"), is(ids()));
+	}
+
+	@Test
+	public void putAndRemove() {
+		TrigramIndex index = new TrigramIndex();
+		index.put(1, "name1");
+		index.put(2, "name2");
+
+		index.put(1, "modified1");
+		assertThat(index.search("name"), is(ids(2)));
+		assertThat(index.search("modified"), is(ids(1)));
+
+		index.remove(2);
+		index.remove(5);
+		assertThat(index.search("name"), is(ids()));
+		assertThat(index.size(), is(1));
+
+		index.clear();
+		assertThat(index.search("modified"), is(ids()));
+		assertThat(index.size(), is(0));
+	}
+
+	@Test
+	public void rollback() {
+		final TrigramIndex index = new TrigramIndex();
+		index.put(1, "name1");
+		index.put(2, "name2");
+
+		TransactionTemplate template = new TransactionTemplate(new NoOpTransactionManager());
+		template.execute(new TransactionCallbackWithoutResult() {
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				index.put(3, "name3");
+				index.put(1, "modified1");
+				index.remove(2);
+				assertThat(index.search("name"), is(ids(3)));
+				index.clear();
+				index.put(4, "name4");
+				assertThat(index.search("name"), is(ids(4)));
+				status.setRollbackOnly();
+			}
+		});
+		assertThat(index.search("name"), is(ids(2, 1)));
+		assertThat(index.size(), is(2));
+
+		template.execute(new TransactionCallbackWithoutResult() {
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				index.remove(1);
+			}
+		});
+		assertThat(index.search("name"), is(ids(2)));
+	}
+
+	@Test
+	public void invisibleToOtherThreadsUntilCommit() throws Exception {
+		final TrigramIndex index = new TrigramIndex();
+		index.put(1, "oldname");
+		index.put(2, "other");
+
+		TransactionTemplate template = new TransactionTemplate(new NoOpTransactionManager());
+		template.execute(new TransactionCallbackWithoutResult() {
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				index.put(1, "newname");
+				index.remove(2);
+				index.put(3, "newcomer");
+				assertThat(index.search("new"), is(ids(3, 1)));
+				assertThat(index.size(), is(2));
+
+				assertThat(searchInOtherThread(index, "old"), is(ids(1)));
+				assertThat(searchInOtherThread(index, "new"), is(ids()));
+				assertThat(searchInOtherThread(index, "other"), is(ids(2)));
+			}
+		});
+
+		assertThat(searchInOtherThread(index, "old"), is(ids()));
+		assertThat(searchInOtherThread(index, "new"), is(ids(3, 1)));
+		assertThat(searchInOtherThread(index, "other"), is(ids()));
+		assertThat(index.size(), is(2));
+	}
+
+	private static int[] searchInOtherThread(final TrigramIndex index, final String query) {
+		final int[][] result = new int[1][];
+		Thread thread = new Thread(new Runnable() {
+			public void run() {
+				result[0] = index.search(query);
+			}
+		});
+		thread.start();
+		try {
+			thread.join();
+		}
+		catch (InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+		return result[0];
+	}
+
+	private static int[] ids(int... ids) {
+		return ids;
+	}
+
+	@SuppressWarnings("serial")
+	static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+		protected Object doGetTransaction() {
+			return new Object();
+		}
+		protected void doBegin(Object transaction, TransactionDefinition definition) {
+		}
+		protected void doCommit(DefaultTransactionStatus status) {
+		}
+		protected void doRollback(DefaultTransactionStatus status) {
+		}
+	}
+}
@@ -3,12 +3,18 @@ package springbook.sug.web.converter;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+
 import org.junit.Test;
 
 import springbook.sug.domain.Group;
-import springbook.sug.service.GroupService;
+import springbook.sug.dao.GroupChangedEvent;
+import springbook.sug.dao.GroupDao;
+import springbook.sug.service.GroupCatalog;
 
 public class GroupConverterTest {
 	@Test
@@ -22,14 +28,37 @@ public class GroupConverterTest {
 	@Test
 	public void stringToGroup() {
 		GroupConverter.StringToGroup converter = new GroupConverter.StringToGroup();
-		GroupService groupService =  mock(GroupService.class);
+		GroupDao groupDao =  mock(GroupDao.class);
 		Group group1 = new Group(1, "");
 		Group group10 = new Group(10, "");
-		when(groupService.get(1)).thenReturn(group1);
-		when(groupService.get(10)).thenReturn(group10);
-		converter.setGroupService(groupService);
+		when(groupDao.getAll()).thenReturn(Arrays.asList(group1, group10));
+		GroupCatalog groupCatalog = new GroupCatalog();
+		groupCatalog.setGroupDao(groupDao);
+		converter.setGroupCatalog(groupCatalog);
 		
 		assertThat(converter.convert("1"), is(group1));
 		assertThat(converter.convert("10"), is(group10));
+		assertThat(converter.convert("1"), is(group1));
+		verify(groupDao, times(1)).getAll();
+	}
+	
+	@Test
+	public void reloadAfterGroupChanged() {
+		GroupDao groupDao =  mock(GroupDao.class);
+		when(groupDao.getAll()).thenReturn(Arrays.asList(new Group(1, "before")))
+				.thenReturn(Arrays.asList(new Group(1, "after")));
+		GroupCatalog groupCatalog = new GroupCatalog();
+		groupCatalog.setGroupDao(groupDao);
+		
+		assertThat(groupCatalog.get(1).getName(), is("before"));
+		assertThat(groupCatalog.getAll().get(0).getName(), is("before"));
+		groupCatalog.get(1).setName("changed by caller");
+		assertThat(groupCatalog.get(1).getName(), is("before"));
+		
+		long version = groupCatalog.getVersion();
+		groupCatalog.onApplicationEvent(new GroupChangedEvent(groupDao));
+		assertThat(groupCatalog.getVersion(), is(version + 1));
+		assertThat(groupCatalog.get(1).getName(), is("after"));
+		verify(groupDao, times(2)).getAll();
 	}
 }